@@ -0,0 +1,103 @@
+package com.holiday.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holiday.client.HolidayApiClient;
+import com.holiday.config.BusinessDayConfig;
+import com.holiday.config.CacheConfig;
+import com.holiday.model.BusinessDayCountResponse;
+import com.holiday.model.CommonHolidaysAcrossResponse;
+import com.holiday.model.CommonHolidaysResponse;
+import com.holiday.model.HolidayCheckResponse;
+import com.holiday.model.LastThreeHolidaysResponse;
+import com.holiday.model.WeekdayHolidaysResponse;
+import com.holiday.repository.HolidayDiskStore;
+import com.holiday.repository.HolidayRepository;
+import com.holiday.repository.SingleFlightHolidayLoader;
+import com.holiday.service.FanOutExecutor;
+import com.holiday.service.HolidayApiService;
+import com.holiday.service.LastThreeHolidaysCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the three endpoints' service methods on warm caches,
+ * wired with the real caching, loading and fan-out beans in front of a StubHolidayApiClient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HolidayApiServiceBenchmark {
+
+    private static final int YEAR = 2024;
+    private static final List<String> COUNTRIES = List.of("US", "NL", "DE", "FR", "GB", "ES", "IT", "BE", "AT", "CH");
+
+    private AnnotationConfigApplicationContext context;
+    private HolidayApiService holidayApiService;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(HolidayApiClient.class, () -> new StubHolidayApiClient(new LinkedHashSet<>(COUNTRIES)));
+        context.registerBean(ObjectMapper.class, () -> Jackson2ObjectMapperBuilder.json().build());
+        context.register(CacheConfig.class, BusinessDayConfig.class, HolidayRepository.class, SingleFlightHolidayLoader.class,
+                HolidayDiskStore.class, FanOutExecutor.class, LastThreeHolidaysCache.class, HolidayApiService.class,
+                SimpleMeterRegistry.class);
+        context.refresh();
+        holidayApiService = context.getBean(HolidayApiService.class);
+
+        // Fill the caches, so every benchmark measures the cached hot path.
+        holidayApiService.getWeekdayHolidaysCount(YEAR, COUNTRIES);
+        holidayApiService.getLastThreeCelebratedHolidays("US");
+        holidayApiService.getLastThreeCelebratedHolidaysJson("US");
+        holidayApiService.countBusinessDays("US", "2020-03-15", "2024-10-15");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LastThreeHolidaysResponse lastThreeCelebratedHolidays() {
+        return holidayApiService.getLastThreeCelebratedHolidays("US");
+    }
+
+    @Benchmark
+    public byte[] lastThreeCelebratedHolidaysJson() {
+        return holidayApiService.getLastThreeCelebratedHolidaysJson("US");
+    }
+
+    @Benchmark
+    public HolidayCheckResponse isHoliday() {
+        return holidayApiService.isHoliday("US", "2024-07-04", "Public");
+    }
+
+    @Benchmark
+    public BusinessDayCountResponse countBusinessDays() {
+        return holidayApiService.countBusinessDays("US", "2020-03-15", "2024-10-15");
+    }
+
+    @Benchmark
+    public WeekdayHolidaysResponse weekdayHolidaysCount() {
+        return holidayApiService.getWeekdayHolidaysCount(YEAR, COUNTRIES);
+    }
+
+    @Benchmark
+    public CommonHolidaysResponse commonHolidays() {
+        return holidayApiService.getCommonHolidays(YEAR, "US", "DE");
+    }
+
+    @Benchmark
+    public CommonHolidaysAcrossResponse commonHolidaysAcross() {
+        return holidayApiService.getCommonHolidays(YEAR, COUNTRIES, 3);
+    }
+}
@@ -0,0 +1,78 @@
+package com.holiday.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holiday.client.NagerHolidayParser;
+import com.holiday.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of reading the NAGER holidays and writing the API responses with Jackson,
+ * using an ObjectMapper configured the way Spring Boot configures it, against the streaming parser the client uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonMappingBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] holidaysJson;
+    private LastThreeHolidaysResponse lastThreeResponse;
+    private WeekdayHolidaysResponse weekdayResponse;
+    private CommonHolidaysResponse commonResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Holiday> holidays = StubHolidayApiClient.holidays("US", 2024);
+        holidaysJson = objectMapper.writeValueAsBytes(holidays.toArray(Holiday[]::new));
+
+        lastThreeResponse = new LastThreeHolidaysResponse("US", holidays.subList(0, 3).stream()
+                .map(holiday -> new HolidayDetails(holiday.date(), holiday.name()))
+                .toList());
+        weekdayResponse = new WeekdayHolidaysResponse(List.of("US", "NL", "DE", "FR", "GB", "ES", "IT", "BE").stream()
+                .map(countryCode -> new CountryHolidayCount(countryCode, 11))
+                .toList());
+        commonResponse = CommonHolidaysResponse.builder()
+                .countryOne("US")
+                .countryTwo("NL")
+                .commonHolidays(holidays.stream()
+                        .map(holiday -> new CommonHoliday(holiday.date(), holiday.localName(), holiday.name()))
+                        .toList())
+                .build();
+    }
+
+    @Benchmark
+    public Holiday[] readHolidays() throws IOException {
+        return objectMapper.readValue(holidaysJson, Holiday[].class);
+    }
+
+    @Benchmark
+    public List<Holiday> readHolidaysStreaming() {
+        return NagerHolidayParser.parse(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(holidaysJson))).block();
+    }
+
+    @Benchmark
+    public byte[] writeLastThreeHolidays() throws IOException {
+        return objectMapper.writeValueAsBytes(lastThreeResponse);
+    }
+
+    @Benchmark
+    public byte[] writeWeekdayHolidaysCount() throws IOException {
+        return objectMapper.writeValueAsBytes(weekdayResponse);
+    }
+
+    @Benchmark
+    public byte[] writeCommonHolidays() throws IOException {
+        return objectMapper.writeValueAsBytes(commonResponse);
+    }
+}
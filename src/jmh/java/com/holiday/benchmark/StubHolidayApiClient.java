@@ -0,0 +1,66 @@
+package com.holiday.benchmark;
+
+import com.holiday.client.HolidayApiClient;
+import com.holiday.model.Holiday;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * HolidayApiClient that answers from memory with a realistic number of holidays per country and year,
+ * so the benchmarks measure this service rather than the network or the NAGER API.
+ */
+public class StubHolidayApiClient extends HolidayApiClient {
+
+    private static final int HOLIDAYS_PER_YEAR = 15;
+
+    private final Set<String> countries;
+
+    public StubHolidayApiClient(Set<String> countries) {
+        super(WebClient.create());
+        this.countries = countries;
+    }
+
+    /**
+     * New Year's Day and Christmas Day for every country, plus holidays spread over the year
+     * on dates that partly differ per country.
+     */
+    public static List<Holiday> holidays(String countryCode, int year) {
+        List<Holiday> holidays = new ArrayList<>(HOLIDAYS_PER_YEAR);
+        holidays.add(holiday(LocalDate.of(year, 1, 1), "New Year's Day", countryCode));
+        int offset = Math.floorMod(countryCode.hashCode(), 7);
+        for (int i = 1; i < HOLIDAYS_PER_YEAR - 1; i++) {
+            holidays.add(holiday(LocalDate.of(year, 1, 1).plusDays(i * 24L + offset), "Holiday " + i, countryCode));
+        }
+        holidays.add(holiday(LocalDate.of(year, 12, 25), "Christmas Day", countryCode));
+        return holidays;
+    }
+
+    private static Holiday holiday(LocalDate date, String name, String countryCode) {
+        return new Holiday(date, name + " (" + countryCode + ")", name, countryCode, null, null, List.of("Public"));
+    }
+
+    @Override
+    public List<Holiday> fetchHolidaysForYear(String countryCode, int year) {
+        return holidays(countryCode.toUpperCase(), year);
+    }
+
+    @Override
+    public Mono<List<Holiday>> fetchHolidaysForYearAsync(String countryCode, int year) {
+        return Mono.fromSupplier(() -> fetchHolidaysForYear(countryCode, year));
+    }
+
+    @Override
+    public Set<String> fetchAvailableCountries() {
+        return countries;
+    }
+
+    @Override
+    public Mono<Set<String>> fetchAvailableCountriesAsync() {
+        return Mono.just(countries);
+    }
+}
@@ -0,0 +1,121 @@
+package com.holiday.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, hedged request when the first has not answered within the usual latency of
+ * NAGER, and takes whichever succeeds first, cancelling the other. This cuts the tail latency
+ * caused by the odd slow response at the cost of a few extra calls.
+ * The hedge delay is either fixed or the given percentile of the recent successful calls;
+ * until enough calls were seen, no hedge is sent. Hedges are counted as "holiday.upstream.hedged".
+ */
+final class HedgedRequests {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final boolean enabled;
+    private final Duration fixedDelay;
+    private final Duration minDelay;
+    private final Timer latency;
+    private final Counter hedged;
+
+    HedgedRequests(boolean enabled, Duration fixedDelay, Duration minDelay, double percentile,
+                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.fixedDelay = fixedDelay;
+        this.minDelay = minDelay;
+        // Only used to estimate the hedge delay, so kept out of the application's registry.
+        this.latency = Timer.builder("holiday.upstream.latency")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(5))
+                .register(new SimpleMeterRegistry());
+        this.hedged = Counter.builder("holiday.upstream.hedged")
+                .description("Hedged NAGER calls sent because the first call was slow")
+                .register(meterRegistry);
+    }
+
+    static HedgedRequests disabled(MeterRegistry meterRegistry) {
+        return new HedgedRequests(false, null, Duration.ZERO, 0.95, meterRegistry);
+    }
+
+    /**
+     * Runs the call, hedged once the delay passed. The first call to produce a value wins, so a
+     * failing hedge never hides a primary call that is still on its way to succeed. When the
+     * primary call fails before the hedge was sent, no hedge is sent and its error is returned
+     * right away; when both fail, the error of the primary call is returned.
+     */
+    <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        Duration delay = delay();
+        if (delay == null) {
+            return timed(call);
+        }
+        return Mono.defer(() -> {
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Throwable> primaryFailed = Sinks.one();
+            Mono<T> first = timed(call).doOnError(e -> {
+                primaryError.set(e);
+                primaryFailed.tryEmitValue(e);
+            });
+            Mono<T> second = Mono.delay(delay)
+                    .takeUntilOther(primaryFailed.asMono())
+                    .doOnNext(ignored -> hedged.increment())
+                    .flatMap(ignored -> timed(call));
+            return Mono.firstWithValue(first, second)
+                    .onErrorResume(NoSuchElementException.class, e -> {
+                        // Neither call produced a value: both failed, or one failed and the other was empty.
+                        if (primaryError.get() != null) {
+                            return Mono.error(primaryError.get());
+                        }
+                        Throwable[] errors = e.getSuppressed();
+                        return errors.length == 0 ? Mono.empty() : Mono.error(unwrap(errors[0]));
+                    });
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        List<Throwable> errors = Exceptions.unwrapMultiple(error);
+        return errors.isEmpty() ? error : errors.get(0);
+    }
+
+    /**
+     * The delay after which a hedge is sent, or null when requests are not hedged (yet).
+     */
+    Duration delay() {
+        if (!enabled) {
+            return null;
+        }
+        if (fixedDelay != null) {
+            return fixedDelay;
+        }
+        if (latency.count() < MIN_SAMPLES) {
+            return null;
+        }
+        ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+        if (percentiles.length == 0) {
+            return null;
+        }
+        Duration delay = Duration.ofNanos((long) percentiles[0].value(TimeUnit.NANOSECONDS));
+        return delay.compareTo(minDelay) < 0 ? minDelay : delay;
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get().doOnSuccess(value -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
@@ -1,19 +1,39 @@
 package com.holiday.client;
 
+import com.holiday.config.HolidayApiProperties;
 import com.holiday.exception.DataNotFoundException;
 import com.holiday.exception.HolidayServiceException;
 import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.UpstreamThrottledException;
+import com.holiday.exception.UpstreamUnavailableException;
 import com.holiday.model.Country;
 import com.holiday.model.Holiday;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -24,70 +44,142 @@ import java.util.stream.Collectors;
  * Client for interacting with the Holiday API.
  * This client fetches holiday data for a specific country and year,
  * and retrieves the list of available countries.
+ * Every call is available as a non-blocking Mono and as a blocking variant for the servlet stack,
+ * and is timed by the UpstreamMetricsFilter. Connections come from the pool configured in HolidayApiClientConfig.
+ * Calls go through the "nager" circuit breaker, which opens when NAGER keeps failing or timing out
+ * and then fails calls fast with an UpstreamUnavailableException instead of waiting on NAGER,
+ * and through the "nager" rate limiter and bulkhead of the UpstreamThrottleFilter. Calls failing that way
+ * are retried by the "nager" retry, and slow calls can be hedged with a second request.
+ * Holidays are decoded by the streaming NagerHolidayParser as the response arrives.
  */
 @Component
 public class HolidayApiClient {
 
-    private final WebClient webClient;
+    // Name of the circuit breaker, rate limiter and bulkhead instances guarding the NAGER calls
+    private static final String NAGER = "nager";
 
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final HedgedRequests hedgedRequests;
 
     @Autowired
-    public HolidayApiClient(@Value("${holiday.api.base-url}") String holidayApiUrl) {
+    public HolidayApiClient(HolidayApiProperties properties, HttpClient holidayApiHttpClient, MeterRegistry meterRegistry,
+                            CircuitBreakerRegistry circuitBreakerRegistry, RateLimiterRegistry rateLimiterRegistry,
+                            BulkheadRegistry bulkheadRegistry, RetryRegistry retryRegistry) {
         this.webClient = WebClient.builder()
-                .baseUrl(holidayApiUrl)
+                .baseUrl(properties.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(holidayApiHttpClient))
+                .filter(new UpstreamThrottleFilter(rateLimiterRegistry.rateLimiter(NAGER),
+                        bulkheadRegistry.bulkhead(NAGER), meterRegistry, Clock.systemUTC()))
+                .filter(new UpstreamMetricsFilter(meterRegistry))
                 .build();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAGER);
+        this.retry = retryRegistry.retry(NAGER);
+        HolidayApiProperties.Hedge hedge = properties.hedge();
+        this.hedgedRequests = new HedgedRequests(hedge.enabled(), hedge.delay(), hedge.minDelay(), hedge.percentile(),
+                meterRegistry);
     }
 
     // Additional constructor for testing
     public HolidayApiClient(WebClient webClient) {
+        this(webClient, CircuitBreaker.of(NAGER, CircuitBreakerConfig.custom()
+                .recordExceptions(UpstreamUnavailableException.class)
+                .build()));
+    }
+
+    public HolidayApiClient(WebClient webClient, CircuitBreaker circuitBreaker) {
         this.webClient = webClient;
+        this.circuitBreaker = circuitBreaker;
+        this.retry = Retry.of(NAGER, RetryConfig.custom().maxAttempts(1).build());
+        this.hedgedRequests = HedgedRequests.disabled(new SimpleMeterRegistry());
     }
 
     public List<Holiday> fetchHolidaysForYear(String countryCode, int year) {
-        try {
-            Holiday[] holidays = webClient.get()
-                    .uri("/PublicHolidays/{year}/{countryCode}", year, countryCode)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, response -> {
-                        if (response.statusCode() == HttpStatus.NOT_FOUND) {
-                            return Mono.error(new InvalidCountryException(
-                                    "Invalid country code: " + countryCode + " or no data available for year: " + year));
-                        }
-                        return Mono.error(new HolidayServiceException("Error fetching holiday data: " + response.statusCode()));
-                    })
-                    .bodyToMono(Holiday[].class)
-                    .block();
-
-            if (holidays == null || holidays.length == 0) {
-                throw new DataNotFoundException("No holidays found for country: " + countryCode + " and year: " + year);
-            }
+        return fetchHolidaysForYearAsync(countryCode, year).block();
+    }
 
-            return Arrays.asList(Objects.requireNonNull(holidays));
-        } catch (WebClientResponseException e) {
-            throw new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
-        } catch (Exception e) {
-            throw new DataNotFoundException("Unexpected error while fetching holiday data: " + e.getMessage());
-        }
+    public Mono<List<Holiday>> fetchHolidaysForYearAsync(String countryCode, int year) {
+        return hedgedRequests.hedge(() -> webClient.get()
+                        .uri("/PublicHolidays/{year}/{countryCode}", year, countryCode)
+                        .attribute(UpstreamMetricsFilter.OPERATION_ATTRIBUTE, "holidays")
+                        .attribute(UpstreamMetricsFilter.COUNTRY_ATTRIBUTE, countryCode.toUpperCase())
+                        .retrieve()
+                        .onStatus(HttpStatusCode::is4xxClientError, response -> {
+                            if (response.statusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                                return response.createException();
+                            }
+                            if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                                return Mono.error(new InvalidCountryException(
+                                        "Invalid country code: " + countryCode + " or no data available for year: " + year));
+                            }
+                            return Mono.error(new HolidayServiceException("Error fetching holiday data: " + response.statusCode()));
+                        })
+                        .bodyToFlux(DataBuffer.class)
+                        .as(NagerHolidayParser::parse))
+                .filter(holidays -> !holidays.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new DataNotFoundException(
+                        "No holidays found for country: " + countryCode + " and year: " + year)))
+                .onErrorMap(e -> {
+                    UpstreamUnavailableException unavailable = unavailable(e);
+                    if (unavailable != null) {
+                        return unavailable;
+                    }
+                    if (e instanceof WebClientResponseException) {
+                        return new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
+                    }
+                    return new DataNotFoundException("Unexpected error while fetching holiday data: " + e.getMessage());
+                })
+                .transform(this::resilient);
     }
 
     public Set<String> fetchAvailableCountries() {
-        try {
-            Country[] countries = webClient.get()
-                    .uri("/AvailableCountries")
-                    .retrieve()
-                    .bodyToMono(Country[].class)
-                    .block();
+        return fetchAvailableCountriesAsync().block();
+    }
 
-            if (countries == null) {
-                throw new HolidayServiceException("Unable to fetch available countries");
-            }
+    public Mono<Set<String>> fetchAvailableCountriesAsync() {
+        return hedgedRequests.hedge(() -> webClient.get()
+                        .uri("/AvailableCountries")
+                        .attribute(UpstreamMetricsFilter.OPERATION_ATTRIBUTE, "countries")
+                        .retrieve()
+                        .bodyToMono(Country[].class))
+                .switchIfEmpty(Mono.error(() -> new HolidayServiceException("Unable to fetch available countries")))
+                .map(countries -> Arrays.stream(Objects.requireNonNull(countries))
+                        .map(Country::countryCode)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .onErrorMap(e -> Objects.requireNonNullElseGet(unavailable(e),
+                        () -> new HolidayServiceException("Error fetching available countries: " + e.getMessage())))
+                .transform(this::resilient);
+    }
 
-            return Arrays.stream(Objects.requireNonNull(countries))
-                    .map(Country::countryCode)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-        } catch (Exception e) {
-            throw new HolidayServiceException("Error fetching available countries: " + e.getMessage());
+    /**
+     * Maps the failures meaning NAGER cannot serve us right now (connection failures, timeouts,
+     * rate limiting and 5xx responses), as opposed to a request it rejects or answers without data.
+     * Returns null for any other failure.
+     */
+    private static UpstreamUnavailableException unavailable(Throwable e) {
+        if (e instanceof UpstreamUnavailableException unavailable) {
+            return unavailable;
+        }
+        if (e instanceof WebClientResponseException response && response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+            return new UpstreamThrottledException("NAGER API rate limit exceeded: " + e.getMessage());
         }
+        if (e instanceof WebClientRequestException
+                || e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError()) {
+            return new UpstreamUnavailableException("NAGER API unavailable: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Counts NAGER being unavailable against the circuit breaker, retries such calls with a jittered
+     * exponential backoff (all NAGER calls are idempotent GETs), and fails fast while the circuit is open.
+     */
+    private <T> Mono<T> resilient(Mono<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorMap(CallNotPermittedException.class,
+                        e -> new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open"));
     }
 }
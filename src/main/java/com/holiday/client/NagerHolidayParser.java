@@ -0,0 +1,198 @@
+package com.holiday.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.holiday.index.HolidayType;
+import com.holiday.model.Holiday;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming parser for the holidays returned by NAGER's PublicHolidays endpoint.
+ * The response is fed to a non-blocking Jackson parser buffer by buffer as it arrives, without
+ * first joining it into one array, and only the date, names, country code and types of each holiday
+ * are decoded. The counties, launch year and any other fields are skipped token by token, so they
+ * are never allocated. Known holiday types share the String instance of their HolidayType's NAGER name.
+ */
+public final class NagerHolidayParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Map<String, String> KNOWN_TYPES = Arrays.stream(HolidayType.values())
+            .map(HolidayType::nagerName)
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), Function.identity()));
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final List<Holiday> holidays = new ArrayList<>();
+
+    // Nesting depth of the current token: 1 inside the array of holidays, 2 inside a holiday
+    private int depth;
+    private String field;
+    private LocalDate date;
+    private String localName;
+    private String name;
+    private String countryCode;
+    private List<String> types;
+
+    private NagerHolidayParser() throws IOException {
+        this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parses the given response body, releasing every buffer once it has been fed to the parser.
+     */
+    public static Mono<List<Holiday>> parse(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            NagerHolidayParser holidayParser;
+            try {
+                holidayParser = new NagerHolidayParser();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            return body.doOnNext(buffer -> {
+                        try {
+                            holidayParser.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(holidayParser::finish));
+        });
+    }
+
+    private void feed(DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+            while (byteBuffers.hasNext()) {
+                // Every token is read before the next buffer is fed, so the parser never holds on to a buffer.
+                feeder.feedInput(byteBuffers.next());
+                readAvailableTokens();
+            }
+        } catch (IOException e) {
+            throw new DecodingException("Invalid NAGER holidays response: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Holiday> finish() {
+        try {
+            feeder.endOfInput();
+            readAvailableTokens();
+            parser.close();
+        } catch (IOException e) {
+            throw new DecodingException("Invalid NAGER holidays response: " + e.getMessage(), e);
+        }
+        if (depth != 0) {
+            throw new DecodingException("Invalid NAGER holidays response: unexpected end of input");
+        }
+        return holidays;
+    }
+
+    private void readAvailableTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_ARRAY, START_OBJECT -> {
+                    depth++;
+                    if (depth == 1 && token != JsonToken.START_ARRAY) {
+                        throw new DecodingException("Invalid NAGER holidays response: expected an array of holidays");
+                    }
+                    if (depth == 2) {
+                        startHoliday();
+                    }
+                }
+                case END_ARRAY, END_OBJECT -> {
+                    if (depth == 2) {
+                        endHoliday();
+                    }
+                    depth--;
+                }
+                case FIELD_NAME -> {
+                    if (depth == 2) {
+                        field = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> value();
+                default -> {
+                    // numbers, booleans and nulls are not needed
+                }
+            }
+        }
+    }
+
+    private void startHoliday() {
+        field = null;
+        date = null;
+        localName = null;
+        name = null;
+        countryCode = null;
+        types = null;
+    }
+
+    private void endHoliday() {
+        holidays.add(new Holiday(date, localName, name, countryCode, null, null, types));
+    }
+
+    private void value() throws IOException {
+        if (depth == 3 && "types".equals(field)) {
+            String type = parser.getText();
+            if (types == null) {
+                types = new ArrayList<>(2);
+            }
+            types.add(KNOWN_TYPES.getOrDefault(type, type));
+            return;
+        }
+        if (depth != 2 || field == null) {
+            return;
+        }
+        switch (field) {
+            case "date" -> date = parseDate(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            case "localName" -> localName = parser.getText();
+            case "name" -> name = parser.getText();
+            case "countryCode" -> countryCode = parser.getText();
+            default -> {
+                // other string fields are not needed
+            }
+        }
+    }
+
+    /**
+     * Parses a yyyy-MM-dd date straight from the parser's character buffer, without creating a String.
+     */
+    static LocalDate parseDate(char[] chars, int offset, int length) {
+        if (length == 10 && chars[offset + 4] == '-' && chars[offset + 7] == '-') {
+            int year = digits(chars, offset, 4);
+            int month = digits(chars, offset + 5, 2);
+            int day = digits(chars, offset + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(new String(chars, offset, length));
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.holiday.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Times every call to the NAGER API as "holiday.upstream.requests", tagged with the operation,
+ * the requested country, the HTTP status and its outcome, so upstream latency and errors can be
+ * told apart from time spent in this service. Calls abandoned before a response arrives, such as
+ * the losing side of a hedged request, are recorded with the CANCELLED outcome.
+ * The histogram is bounded to the latencies a single NAGER call can show, from 10 ms up to the
+ * throttle wait plus the response timeout, which keeps it to 47 buckets per series instead of 69.
+ */
+final class UpstreamMetricsFilter implements ExchangeFilterFunction {
+
+    static final String OPERATION_ATTRIBUTE = UpstreamMetricsFilter.class.getName() + ".operation";
+    static final String COUNTRY_ATTRIBUTE = UpstreamMetricsFilter.class.getName() + ".country";
+
+    private static final String METRIC_NAME = "holiday.upstream.requests";
+    private static final String NONE = "none";
+    private static final String CANCELLED = "CANCELLED";
+    private static final Duration MIN_EXPECTED_LATENCY = Duration.ofMillis(10);
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry;
+
+    UpstreamMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnNext(response -> sample.stop(timer(request, String.valueOf(response.statusCode().value()),
+                            Outcome.forStatus(response.statusCode().value()).name())))
+                    .doOnError(e -> sample.stop(timer(request, "IO_ERROR", Outcome.UNKNOWN.name())))
+                    .doOnCancel(() -> sample.stop(timer(request, CANCELLED, CANCELLED)));
+        });
+    }
+
+    private Timer timer(ClientRequest request, String status, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Calls to the NAGER API")
+                .tag("operation", attribute(request, OPERATION_ATTRIBUTE))
+                .tag("country", attribute(request, COUNTRY_ATTRIBUTE))
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(meterRegistry);
+    }
+
+    private static String attribute(ClientRequest request, String name) {
+        return request.attribute(name).map(Object::toString).orElse(NONE);
+    }
+}
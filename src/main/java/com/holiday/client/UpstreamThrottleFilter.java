@@ -0,0 +1,188 @@
+package com.holiday.client;
+
+import com.holiday.exception.UpstreamThrottledException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the calls to the NAGER API with a token-bucket rate limiter and a concurrency bulkhead.
+ * Callers wait, on a virtual thread, for a token and a free slot for at most the configured timeouts
+ * and are then rejected with an UpstreamThrottledException.
+ * A bulkhead slot is held until the response body was read or discarded, not only until the
+ * response headers arrived, so the bulkhead bounds the connections actually busy with NAGER.
+ * The rate adapts to NAGER: a 429 or 5xx response halves the tokens per period, at most once per
+ * refresh period, every other response adds one back up to the configured limit, and a Retry-After
+ * header pauses all calls until NAGER accepts requests again.
+ * The time spent waiting is published as "holiday.upstream.throttle.wait", rejections as
+ * "holiday.upstream.throttle.rejected" and the current rate as "holiday.upstream.throttle.limit".
+ */
+final class UpstreamThrottleFilter implements ExchangeFilterFunction {
+
+    private static final String METRIC_PREFIX = "holiday.upstream.throttle";
+
+    private final RateLimiter rateLimiter;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int maxLimitForPeriod;
+    private final Duration maxWait;
+    private final Duration refreshPeriod;
+    private final AtomicLong nextDecreaseMillis = new AtomicLong();
+    private final Timer waitTimer;
+    private final Scheduler waitScheduler = Schedulers.fromExecutor(Thread::startVirtualThread);
+    private volatile long pausedUntilMillis;
+
+    UpstreamThrottleFilter(RateLimiter rateLimiter, Bulkhead bulkhead, MeterRegistry meterRegistry, Clock clock) {
+        this.rateLimiter = rateLimiter;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.maxLimitForPeriod = rateLimiter.getRateLimiterConfig().getLimitForPeriod();
+        this.maxWait = rateLimiter.getRateLimiterConfig().getTimeoutDuration();
+        this.refreshPeriod = rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod();
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time NAGER calls waited for the rate limiter and the bulkhead")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".limit", this, UpstreamThrottleFilter::limitForPeriod)
+                .description("NAGER calls currently allowed per rate limiter period")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.using(() -> acquire(start),
+                            permit -> next.exchange(request)
+                                    .doOnNext(response -> adapt(response.statusCode().value(),
+                                            response.headers().asHttpHeaders()))
+                                    .map(permit::releaseAfterBody),
+                            BulkheadPermit::releaseUnlessHandedOver)
+                    .subscribeOn(waitScheduler);
+        });
+    }
+
+    /**
+     * Blocks the calling virtual thread until the Retry-After pause is over, a token is available
+     * and the bulkhead has a free slot.
+     */
+    private BulkheadPermit acquire(long start) throws InterruptedException {
+        try {
+            long pauseMillis = pausedUntilMillis - clock.millis();
+            if (pauseMillis > 0) {
+                if (pauseMillis > maxWait.toMillis()) {
+                    throw rejected("retry_after", "NAGER API asked to retry after " + pauseMillis + " ms");
+                }
+                Thread.sleep(pauseMillis);
+            }
+            RateLimiter.waitForPermission(rateLimiter);
+            try {
+                bulkhead.acquirePermission();
+            } catch (BulkheadFullException e) {
+                throw rejected("bulkhead", "Too many concurrent NAGER API calls");
+            }
+            return new BulkheadPermit();
+        } catch (RequestNotPermitted e) {
+            throw rejected("rate_limiter", "NAGER API rate limit reached");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void adapt(int status, HttpHeaders headers) {
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500) {
+            // The calls that were already in flight when NAGER started pushing back fail together,
+            // so the rate is halved once per period rather than once per failed call.
+            long now = clock.millis();
+            long allowedAt = nextDecreaseMillis.get();
+            if (now >= allowedAt && nextDecreaseMillis.compareAndSet(allowedAt, now + refreshPeriod.toMillis())) {
+                rateLimiter.changeLimitForPeriod(Math.max(1, limitForPeriod() / 2));
+            }
+            Duration retryAfter = retryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            if (retryAfter != null) {
+                pausedUntilMillis = Math.max(pausedUntilMillis, clock.millis() + retryAfter.toMillis());
+            }
+        } else if (limitForPeriod() < maxLimitForPeriod) {
+            rateLimiter.changeLimitForPeriod(limitForPeriod() + 1);
+        }
+    }
+
+    int limitForPeriod() {
+        return rateLimiter.getRateLimiterConfig().getLimitForPeriod();
+    }
+
+    /**
+     * Parses a Retry-After header given either in seconds or as an HTTP date, or returns null.
+     */
+    private Duration retryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Duration.ofMillis(Math.max(0, date.toInstant().toEpochMilli() - clock.millis()));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private UpstreamThrottledException rejected(String reason, String message) {
+        meterRegistry.counter(METRIC_PREFIX + ".rejected", "reason", reason).increment();
+        return new UpstreamThrottledException(message);
+    }
+
+    /**
+     * A bulkhead slot, released exactly once: when the response body completes, fails or is
+     * cancelled, or when the call ends without handing a response over.
+     */
+    private final class BulkheadPermit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean handedOver;
+
+        ClientResponse releaseAfterBody(ClientResponse response) {
+            handedOver = true;
+            return response.mutate().body(body -> body.doFinally(signal -> release())).build();
+        }
+
+        void releaseUnlessHandedOver() {
+            if (!handedOver) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.holiday.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the business-day properties, such as the weekend of each country.
+ */
+@Configuration
+@EnableConfigurationProperties(BusinessDayProperties.class)
+public class BusinessDayConfig {
+}
@@ -0,0 +1,48 @@
+package com.holiday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for the business-day calculations.
+ *
+ * @param weekend The days of the week that are not business days, unless the country has its own weekend.
+ * @param weekends The weekends of the countries that do not rest on the default weekend, by country code.
+ */
+@ConfigurationProperties(prefix = "holiday.business-days")
+public record BusinessDayProperties(
+        @DefaultValue({"SATURDAY", "SUNDAY"}) Set<DayOfWeek> weekend,
+        Map<String, Set<DayOfWeek>> weekends
+) {
+
+    public BusinessDayProperties {
+        weekend = validWeekend("default", weekend);
+        Map<String, Set<DayOfWeek>> byCountry = new HashMap<>();
+        if (weekends != null) {
+            weekends.forEach((countryCode, days) ->
+                    byCountry.put(countryCode.toUpperCase(), validWeekend(countryCode, days)));
+        }
+        weekends = Map.copyOf(byCountry);
+    }
+
+    /**
+     * The days of the week that are not business days in the given country.
+     */
+    public Set<DayOfWeek> weekendOf(String countryCode) {
+        return weekends.getOrDefault(countryCode.toUpperCase(), weekend);
+    }
+
+    private static Set<DayOfWeek> validWeekend(String name, Set<DayOfWeek> days) {
+        Set<DayOfWeek> weekend = days == null || days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+        if (weekend.size() == DayOfWeek.values().length) {
+            throw new IllegalArgumentException("The " + name + " weekend must leave at least one business day");
+        }
+        return weekend;
+    }
+}
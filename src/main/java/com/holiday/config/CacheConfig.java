@@ -1,21 +1,178 @@
 package com.holiday.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.SerializedResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Cache configuration class for managing holiday and country caches.
- * Uses ConcurrentMapCacheManager to store cache entries in memory.
+ * Uses bounded Caffeine caches with per-cache size, weight and expiry policies,
+ * and records statistics so hit rate, evictions and load latency are published through Micrometer.
+ * The caches run in async mode: a miss only installs a future under the cache's lock and the
+ * NAGER call itself runs on a virtual thread, so waiting callers never pin a carrier thread.
+ * In async mode Caffeine logs every failed load with its stack trace at WARN; the application
+ * properties keep that logger at ERROR, since failed NAGER loads are expected and reported elsewhere.
+ * The "last-three" cache holds serialized /lastThree responses until the day their content changes.
  */
 @Configuration
 @EnableCaching
-public class CacheConfig {
+@EnableConfigurationProperties(HolidayCacheProperties.class)
+public class CacheConfig implements DisposableBean {
+
+    public static final String HOLIDAYS_CACHE = "holidays";
+    public static final String COUNTRIES_CACHE = "countries";
+    public static final String STALE_HOLIDAYS_CACHE = "holidays-stale";
+    public static final String LAST_THREE_CACHE = "last-three";
+
+    // Kept out of the context so it does not replace Spring Boot's applicationTaskExecutor.
+    private final ExecutorService cacheLoadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("holidays", "countries");
+    public CacheManager cacheManager(HolidayCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.registerCustomCache(HOLIDAYS_CACHE,
+                buildCache(properties.holidays()).executor(cacheLoadExecutor).buildAsync());
+        cacheManager.registerCustomCache(COUNTRIES_CACHE,
+                buildCache(properties.countries()).executor(cacheLoadExecutor).buildAsync());
+        cacheManager.registerCustomCache(STALE_HOLIDAYS_CACHE,
+                buildCache(properties.stale()).executor(cacheLoadExecutor).buildAsync());
+        cacheManager.registerCustomCache(LAST_THREE_CACHE,
+                buildResponseCache(properties.lastThree()).executor(cacheLoadExecutor).buildAsync());
+        return cacheManager;
+    }
+
+    @Override
+    public void destroy() {
+        cacheLoadExecutor.close();
+    }
+
+    static Caffeine<Object, Object> buildCache(HolidayCacheProperties.CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+
+        if (spec.maximumWeight() != null) {
+            builder.maximumWeight(spec.maximumWeight()).weigher((key, value) -> weigh(value));
+        } else {
+            builder.maximumSize(spec.maximumSize());
+        }
+
+        if (spec.pastYearsExpireAfterWrite() != null || spec.staleExpireAfterWrite() != null) {
+            builder.expireAfter(new HolidayYearExpiry(spec.expireAfterWrite(),
+                    Objects.requireNonNullElse(spec.pastYearsExpireAfterWrite(), spec.expireAfterWrite()),
+                    Objects.requireNonNullElse(spec.staleExpireAfterWrite(), spec.expireAfterWrite()),
+                    Clock.systemDefaultZone()));
+        } else {
+            builder.expireAfterWrite(spec.expireAfterWrite());
+        }
+        return builder;
+    }
+
+    static Caffeine<Object, Object> buildResponseCache(HolidayCacheProperties.CacheSpec spec) {
+        return Caffeine.newBuilder()
+                .recordStats()
+                .maximumSize(spec.maximumSize())
+                .expireAfter(new ValidUntilExpiry(spec.expireAfterWrite(), Clock.systemDefaultZone()));
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof HolidayIndex index) {
+            return Math.max(1, index.size());
+        }
+        return value instanceof Collection<?> collection ? Math.max(1, collection.size()) : 1;
+    }
+
+    /**
+     * Expiry policy that keeps the holidays of past years much longer than those of the current
+     * and future years, since NAGER no longer changes them once the year is over.
+     * Stale entries, served while NAGER is being reloaded, only live briefly so the reload is retried.
+     */
+    static final class HolidayYearExpiry implements Expiry<Object, Object> {
+
+        private final long expireNanos;
+        private final long pastYearsExpireNanos;
+        private final long staleExpireNanos;
+        private final Clock clock;
+
+        HolidayYearExpiry(Duration expireAfterWrite, Duration pastYearsExpireAfterWrite,
+                          Duration staleExpireAfterWrite, Clock clock) {
+            this.expireNanos = expireAfterWrite.toNanos();
+            this.pastYearsExpireNanos = pastYearsExpireAfterWrite.toNanos();
+            this.staleExpireNanos = staleExpireAfterWrite.toNanos();
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (value instanceof HolidayIndex index && index.isStale()) {
+                return staleExpireNanos;
+            }
+            return isPastYear(value) ? pastYearsExpireNanos : expireNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private boolean isPastYear(Object value) {
+            return value instanceof HolidayIndex index && index.year() < Year.now(clock).getValue();
+        }
+    }
+
+    /**
+     * Expiry policy that drops a serialized response at the start of the day it may change,
+     * and no later than expireAfterWrite so reloaded holidays still reach it.
+     */
+    static final class ValidUntilExpiry implements Expiry<Object, Object> {
+
+        private final Duration maxExpire;
+        private final Clock clock;
+
+        ValidUntilExpiry(Duration maxExpire, Clock clock) {
+            this.maxExpire = maxExpire;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (!(value instanceof SerializedResponse response)) {
+                return maxExpire.toNanos();
+            }
+            Duration untilInvalid = Duration.between(LocalDateTime.now(clock), response.validUntil().atStartOfDay());
+            return Math.max(0, Math.min(untilInvalid.toNanos(), maxExpire.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
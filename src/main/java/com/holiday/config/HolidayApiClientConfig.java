@@ -0,0 +1,58 @@
+package com.holiday.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuration of the Reactor Netty HTTP client used to call the NAGER API.
+ * The client gets its own bounded connection pool with connect and response timeouts, so a slow
+ * or unreachable NAGER fails fast instead of piling up requests behind it.
+ */
+@Configuration
+@EnableConfigurationProperties(HolidayApiProperties.class)
+public class HolidayApiClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider holidayApiConnectionProvider(HolidayApiProperties properties) {
+        HolidayApiProperties.Pool pool = properties.pool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("nager")
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictInBackground());
+        if (properties.http2()) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(pool.maxConnections())
+                    .maxConcurrentStreams(pool.maxConcurrentStreams())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public HttpClient holidayApiHttpClient(HolidayApiProperties properties, ConnectionProvider holidayApiConnectionProvider) {
+        return HttpClient.create(holidayApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(properties.connectTimeout().toMillis()))
+                .responseTimeout(properties.responseTimeout())
+                .compress(properties.compression())
+                .protocol(protocols(properties));
+    }
+
+    private static HttpProtocol[] protocols(HolidayApiProperties properties) {
+        if (!properties.http2()) {
+            return new HttpProtocol[] {HttpProtocol.HTTP11};
+        }
+        // HTTP/2 is negotiated through ALPN over TLS and through an upgrade (h2c) over plain HTTP.
+        HttpProtocol http2 = properties.baseUrl() != null && properties.baseUrl().startsWith("https")
+                ? HttpProtocol.H2 : HttpProtocol.H2C;
+        return new HttpProtocol[] {http2, HttpProtocol.HTTP11};
+    }
+}
@@ -0,0 +1,67 @@
+package com.holiday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the connection to the NAGER API.
+ *
+ * @param baseUrl The base URL of the NAGER API.
+ * @param connectTimeout How long to wait for a TCP connection to be established.
+ * @param responseTimeout How long to wait for the response once the request has been sent.
+ * @param compression Whether to ask for gzip compressed responses.
+ * @param http2 Whether to negotiate HTTP/2, falling back to HTTP/1.1 when the server does not support it.
+ * @param pool The connection pool shared by all calls.
+ * @param hedge When and whether to send hedged requests for slow calls.
+ */
+@ConfigurationProperties(prefix = "holiday.api")
+public record HolidayApiProperties(
+        String baseUrl,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration responseTimeout,
+        @DefaultValue("true") boolean compression,
+        @DefaultValue("false") boolean http2,
+        @DefaultValue Pool pool,
+        @DefaultValue Hedge hedge
+) {
+
+    /**
+     * Limits of the connection pool. Together they bound the number of requests in flight to NAGER:
+     * at most maxConnections are sent at once (times maxConcurrentStreams over HTTP/2) and at most
+     * pendingAcquireMaxCount more wait for a connection, for no longer than pendingAcquireTimeout.
+     *
+     * @param maxConnections The maximum number of open connections.
+     * @param maxConcurrentStreams The maximum number of concurrent requests per connection over HTTP/2.
+     * @param pendingAcquireMaxCount The maximum number of requests waiting for a free connection.
+     * @param pendingAcquireTimeout How long a request waits for a free connection before it fails.
+     * @param maxIdleTime How long an idle connection is kept open.
+     * @param maxLifeTime How long a connection is used before it is closed, e.g. to follow DNS changes.
+     * @param evictInBackground How often idle and expired connections are closed in the background.
+     */
+    public record Pool(
+            @DefaultValue("50") int maxConnections,
+            @DefaultValue("100") int maxConcurrentStreams,
+            @DefaultValue("200") int pendingAcquireMaxCount,
+            @DefaultValue("2s") Duration pendingAcquireTimeout,
+            @DefaultValue("30s") Duration maxIdleTime,
+            @DefaultValue("5m") Duration maxLifeTime,
+            @DefaultValue("30s") Duration evictInBackground
+    ) {}
+
+    /**
+     * Hedged requests: a second call sent when the first has not answered in time, keeping whichever answers first.
+     *
+     * @param enabled Whether to send hedged requests.
+     * @param delay A fixed delay after which to hedge, instead of the observed latency percentile.
+     * @param percentile The percentile of the recent NAGER latencies used as the hedge delay, e.g. the p95.
+     * @param minDelay The shortest hedge delay, so a fast NAGER is not called twice for every request.
+     */
+    public record Hedge(
+            @DefaultValue("false") boolean enabled,
+            Duration delay,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("50ms") Duration minDelay
+    ) {}
+}
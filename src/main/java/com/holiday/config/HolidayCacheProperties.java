@@ -0,0 +1,40 @@
+package com.holiday.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the holiday and country caches.
+ *
+ * @param holidays The policy for the "holidays" cache (one entry per country and year).
+ * @param countries The policy for the "countries" cache (the list of available countries).
+ * @param stale The policy for the "holidays-stale" tier, the last known holidays served while NAGER is reloaded.
+ * @param lastThree The policy for the "last-three" cache of serialized /lastThree responses (one entry per country).
+ */
+@ConfigurationProperties(prefix = "holiday.cache")
+public record HolidayCacheProperties(
+        @DefaultValue CacheSpec holidays,
+        @DefaultValue CacheSpec countries,
+        @DefaultValue CacheSpec stale,
+        @DefaultValue CacheSpec lastThree
+) {
+
+    /**
+     * Eviction and expiry policy of a single cache.
+     *
+     * @param maximumSize The maximum number of entries, used when no maximum weight is set.
+     * @param maximumWeight The maximum total weight of the entries, e.g. the number of cached holidays.
+     * @param expireAfterWrite How long an entry stays cached after it was loaded.
+     * @param pastYearsExpireAfterWrite How long entries for past years stay cached, as their data no longer changes.
+     * @param staleExpireAfterWrite How long a stale entry is served before it is reloaded again.
+     */
+    public record CacheSpec(
+            @DefaultValue("1000") long maximumSize,
+            Long maximumWeight,
+            @DefaultValue("1h") Duration expireAfterWrite,
+            Duration pastYearsExpireAfterWrite,
+            Duration staleExpireAfterWrite
+    ) {}
+}
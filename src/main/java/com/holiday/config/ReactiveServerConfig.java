@@ -0,0 +1,30 @@
+package com.holiday.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+
+/**
+ * Embedded server configuration for the reactive stack.
+ * Tomcat is on the classpath for the servlet stack, and Spring Boot prefers it over Netty for reactive
+ * applications too, which would run the WebFlux handlers on Tomcat's servlet adapter. Declaring the Netty
+ * factory makes the reactive mode serve requests from Netty's event loops.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<ReactorResourceFactory> resourceFactory,
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory serverFactory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(serverFactory::setResourceFactory);
+        serverFactory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return serverFactory;
+    }
+}
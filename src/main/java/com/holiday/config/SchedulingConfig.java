@@ -0,0 +1,12 @@
+package com.holiday.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs, such as the periodic holiday cache warm-up.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
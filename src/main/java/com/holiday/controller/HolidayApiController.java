@@ -1,35 +1,127 @@
 package com.holiday.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holiday.exception.GlobalExceptionHandler;
+import com.holiday.model.BatchQuery;
+import com.holiday.model.BatchResult;
+import com.holiday.model.BusinessDayCountResponse;
+import com.holiday.model.BusinessDayResponse;
+import com.holiday.model.CommonHolidaysAcrossResponse;
+import com.holiday.model.CommonHolidaysForYear;
 import com.holiday.model.CommonHolidaysResponse;
-import com.holiday.model.LastThreeHolidaysResponse;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.CountryHolidaysResponse;
+import com.holiday.model.HolidayCheckResponse;
+import com.holiday.model.WeekdayHolidaysForYear;
 import com.holiday.model.WeekdayHolidaysResponse;
 import com.holiday.service.HolidayApiService;
+import com.holiday.service.StaleDataMarker;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Controller for handling holiday-related API requests.
- * Provides endpoints to retrieve last three holidays, count of weekday holidays,
- * and common holidays between two countries.
+ * Provides endpoints to retrieve the last three (or last and next N) holidays, count of weekday holidays,
+ * and common holidays between two or more countries, for a single year or streamed per year over a range,
+ * as well as business-day arithmetic on a country's calendar, and a batch endpoint running many queries at once.
+ * The weekday count and the ranges can also be streamed as NDJSON or server-sent events, one country or year
+ * at a time as soon as it is ready, when the Accept header asks for application/x-ndjson or text/event-stream.
  */
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/v1/holidays")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HolidayApiController {
 
+    private static final byte[] EVENT_ERROR = "event:error\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_DATA = "data:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LINE_END = "\n".getBytes(StandardCharsets.UTF_8);
+
     private final HolidayApiService holidayApiService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/lastThree")
-    public ResponseEntity<LastThreeHolidaysResponse> getLastThreeCelebratedHolidays(
+    public ResponseEntity<byte[]> getLastThreeCelebratedHolidays(
             @RequestParam("country") String countryCode) {
 
-        LastThreeHolidaysResponse response = holidayApiService.getLastThreeCelebratedHolidays(countryCode);
+        byte[] response = holidayApiService.getLastThreeCelebratedHolidaysJson(countryCode);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    @GetMapping("/last")
+    public ResponseEntity<CountryHolidaysResponse> getCelebratedHolidays(
+            @RequestParam("country") String countryCode,
+            @RequestParam(value = "count", defaultValue = "3") int count) {
+
+        CountryHolidaysResponse response = holidayApiService.getCelebratedHolidays(countryCode, count);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/next")
+    public ResponseEntity<CountryHolidaysResponse> getUpcomingHolidays(
+            @RequestParam("country") String countryCode,
+            @RequestParam(value = "count", defaultValue = "3") int count) {
+
+        CountryHolidaysResponse response = holidayApiService.getUpcomingHolidays(countryCode, count);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/isHoliday")
+    public ResponseEntity<HolidayCheckResponse> isHoliday(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date,
+            @RequestParam(value = "type", required = false) String type) {
+
+        HolidayCheckResponse response = holidayApiService.isHoliday(countryCode, date, type);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/businessDays/add")
+    public ResponseEntity<BusinessDayResponse> addBusinessDays(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date,
+            @RequestParam("days") int days) {
+
+        BusinessDayResponse response = holidayApiService.addBusinessDays(countryCode, date, days);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/businessDays/next")
+    public ResponseEntity<BusinessDayResponse> getNextBusinessDay(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date) {
+
+        BusinessDayResponse response = holidayApiService.getNextBusinessDay(countryCode, date);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/businessDays/count")
+    public ResponseEntity<BusinessDayCountResponse> countBusinessDays(
+            @RequestParam("country") String countryCode,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+
+        BusinessDayCountResponse response = holidayApiService.countBusinessDays(countryCode, from, to);
         return ResponseEntity.ok(response);
     }
 
@@ -42,6 +134,16 @@ public class HolidayApiController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/weekdayCount", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamWeekdayHolidaysCount(
+            @RequestParam("year") int year,
+            @RequestParam("countries") List<String> countries,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept) {
+
+        Stream<CountryHolidayCount> response = holidayApiService.streamWeekdayHolidaysCount(year, countries);
+        return eventStream(response, accept);
+    }
+
     @GetMapping("/common")
     public ResponseEntity<CommonHolidaysResponse> getCommonHolidays(
             @RequestParam("year") int year,
@@ -51,4 +153,140 @@ public class HolidayApiController {
         CommonHolidaysResponse response = holidayApiService.getCommonHolidays(year, countryCodeOne, countryCodeTwo);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/commonAcross")
+    public ResponseEntity<CommonHolidaysAcrossResponse> getCommonHolidaysAcross(
+            @RequestParam("year") int year,
+            @RequestParam("countries") List<String> countries,
+            @RequestParam(value = "minCountries", required = false) Integer minCountries) {
+
+        CommonHolidaysAcrossResponse response = holidayApiService.getCommonHolidays(year, countries, minCountries);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult>> getBatch(@RequestBody List<BatchQuery> queries) {
+
+        List<BatchResult> response = holidayApiService.getBatch(queries);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/weekdayCount/range")
+    public ResponseEntity<StreamingResponseBody> getWeekdayHolidaysCountForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countries") List<String> countries) {
+
+        Stream<WeekdayHolidaysForYear> response = holidayApiService.getWeekdayHolidaysCount(fromYear, toYear, countries);
+        return streamingOk().contentType(MediaType.APPLICATION_JSON).body(jsonArray(response));
+    }
+
+    @GetMapping("/common/range")
+    public ResponseEntity<StreamingResponseBody> getCommonHolidaysForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countryOne") String countryCodeOne,
+            @RequestParam("countryTwo") String countryCodeTwo) {
+
+        Stream<CommonHolidaysForYear> response =
+                holidayApiService.getCommonHolidays(fromYear, toYear, countryCodeOne, countryCodeTwo);
+        return streamingOk().contentType(MediaType.APPLICATION_JSON).body(jsonArray(response));
+    }
+
+    @GetMapping(value = "/weekdayCount/range",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamWeekdayHolidaysCountForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countries") List<String> countries,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept) {
+
+        Stream<WeekdayHolidaysForYear> response =
+                holidayApiService.streamWeekdayHolidaysCount(fromYear, toYear, countries);
+        return eventStream(response, accept);
+    }
+
+    @GetMapping(value = "/common/range", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamCommonHolidaysForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countryOne") String countryCodeOne,
+            @RequestParam("countryTwo") String countryCodeTwo,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept) {
+
+        Stream<CommonHolidaysForYear> response =
+                holidayApiService.streamCommonHolidays(fromYear, toYear, countryCodeOne, countryCodeTwo);
+        return eventStream(response, accept);
+    }
+
+    /**
+     * Writes the items as a JSON array, flushing each one as soon as the stream yields it.
+     * The status line is already sent by then, so an item failing to load ends the array with the error
+     * response its exception handler would have given, as the last element, instead of cutting the array short.
+     * Closing the stream, also when the client has gone away, cancels the lookups still waiting to start.
+     */
+    private StreamingResponseBody jsonArray(Stream<?> items) {
+        return outputStream -> {
+            try (items; JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                try {
+                    for (Iterator<?> iterator = items.iterator(); iterator.hasNext(); ) {
+                        objectMapper.writeValue(generator, iterator.next());
+                        generator.flush();
+                    }
+                } catch (RuntimeException e) {
+                    objectMapper.writeValue(generator, GlobalExceptionHandler.toErrorResponse(e).getBody());
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Writes the items as NDJSON, one JSON document per line, when the Accept header asks for it,
+     * and otherwise as server-sent events, flushing each one as soon as the stream yields it.
+     * An item failing to load ends the stream with the error response its exception handler would have given,
+     * as the last line or as an "error" event. Closing the stream, also when the client has gone away,
+     * cancels the lookups still waiting to start.
+     */
+    private ResponseEntity<StreamingResponseBody> eventStream(Stream<?> items, String accept) {
+        boolean ndjson = MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        StreamingResponseBody body = outputStream -> {
+            try (items) {
+                try {
+                    for (Iterator<?> iterator = items.iterator(); iterator.hasNext(); ) {
+                        writeEvent(outputStream, ndjson, false, iterator.next());
+                    }
+                } catch (RuntimeException e) {
+                    writeEvent(outputStream, ndjson, true, GlobalExceptionHandler.toErrorResponse(e).getBody());
+                }
+            }
+        };
+        return streamingOk()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.TEXT_EVENT_STREAM)
+                .body(body);
+    }
+
+    /**
+     * A 200 response for a streamed body, flagged with the X-Holiday-Data-Stale header when any of the holidays
+     * loaded by the time the headers are sent were served stale. The StaleDataHeaderAdvice does not see streamed
+     * bodies, which are written after the headers.
+     */
+    private static ResponseEntity.BodyBuilder streamingOk() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        return StaleDataMarker.isMarked() ? response.header(StaleDataMarker.HEADER, "true") : response;
+    }
+
+    private void writeEvent(OutputStream outputStream, boolean ndjson, boolean error, Object item) throws IOException {
+        if (!ndjson) {
+            if (error) {
+                outputStream.write(EVENT_ERROR);
+            }
+            outputStream.write(EVENT_DATA);
+        }
+        outputStream.write(objectMapper.writeValueAsBytes(item));
+        outputStream.write(ndjson ? LINE_END : EVENT_END);
+        outputStream.flush();
+    }
 }
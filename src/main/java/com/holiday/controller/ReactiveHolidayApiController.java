@@ -0,0 +1,182 @@
+package com.holiday.controller;
+
+import com.holiday.model.BatchQuery;
+import com.holiday.model.BatchResult;
+import com.holiday.model.BusinessDayCountResponse;
+import com.holiday.model.BusinessDayResponse;
+import com.holiday.model.CommonHolidaysAcrossResponse;
+import com.holiday.model.CommonHolidaysForYear;
+import com.holiday.model.CommonHolidaysResponse;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.CountryHolidaysResponse;
+import com.holiday.model.HolidayCheckResponse;
+import com.holiday.model.WeekdayHolidaysForYear;
+import com.holiday.model.WeekdayHolidaysResponse;
+import com.holiday.service.ReactiveHolidayApiService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive controller for handling holiday-related API requests.
+ * Serves the same endpoints as the HolidayApiController when the application runs on
+ * the reactive stack (the "reactive" profile), without blocking a thread per request.
+ * The NDJSON and server-sent event variants emit each country or year as soon as it is ready.
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/holidays")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHolidayApiController {
+
+    private final ReactiveHolidayApiService holidayApiService;
+
+    @GetMapping("/lastThree")
+    public Mono<ResponseEntity<byte[]>> getLastThreeCelebratedHolidays(
+            @RequestParam("country") String countryCode) {
+
+        return holidayApiService.getLastThreeCelebratedHolidaysJson(countryCode)
+                .map(response -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response));
+    }
+
+    @GetMapping("/last")
+    public Mono<ResponseEntity<CountryHolidaysResponse>> getCelebratedHolidays(
+            @RequestParam("country") String countryCode,
+            @RequestParam(value = "count", defaultValue = "3") int count) {
+
+        return holidayApiService.getCelebratedHolidays(countryCode, count).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/next")
+    public Mono<ResponseEntity<CountryHolidaysResponse>> getUpcomingHolidays(
+            @RequestParam("country") String countryCode,
+            @RequestParam(value = "count", defaultValue = "3") int count) {
+
+        return holidayApiService.getUpcomingHolidays(countryCode, count).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/isHoliday")
+    public Mono<ResponseEntity<HolidayCheckResponse>> isHoliday(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date,
+            @RequestParam(value = "type", required = false) String type) {
+
+        return holidayApiService.isHoliday(countryCode, date, type).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/businessDays/add")
+    public Mono<ResponseEntity<BusinessDayResponse>> addBusinessDays(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date,
+            @RequestParam("days") int days) {
+
+        return holidayApiService.addBusinessDays(countryCode, date, days).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/businessDays/next")
+    public Mono<ResponseEntity<BusinessDayResponse>> getNextBusinessDay(
+            @RequestParam("country") String countryCode,
+            @RequestParam("date") String date) {
+
+        return holidayApiService.getNextBusinessDay(countryCode, date).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/businessDays/count")
+    public Mono<ResponseEntity<BusinessDayCountResponse>> countBusinessDays(
+            @RequestParam("country") String countryCode,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+
+        return holidayApiService.countBusinessDays(countryCode, from, to).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/weekdayCount")
+    public Mono<ResponseEntity<WeekdayHolidaysResponse>> getWeekdayHolidaysCount(
+            @RequestParam("year") int year,
+            @RequestParam("countries") List<String> countries) {
+
+        return holidayApiService.getWeekdayHolidaysCount(year, countries).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/weekdayCount", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CountryHolidayCount> streamWeekdayHolidaysCount(
+            @RequestParam("year") int year,
+            @RequestParam("countries") List<String> countries) {
+
+        return holidayApiService.streamWeekdayHolidaysCount(year, countries);
+    }
+
+    @GetMapping("/common")
+    public Mono<ResponseEntity<CommonHolidaysResponse>> getCommonHolidays(
+            @RequestParam("year") int year,
+            @RequestParam("countryOne") String countryCodeOne,
+            @RequestParam("countryTwo") String countryCodeTwo) {
+
+        return holidayApiService.getCommonHolidays(year, countryCodeOne, countryCodeTwo).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/commonAcross")
+    public Mono<ResponseEntity<CommonHolidaysAcrossResponse>> getCommonHolidaysAcross(
+            @RequestParam("year") int year,
+            @RequestParam("countries") List<String> countries,
+            @RequestParam(value = "minCountries", required = false) Integer minCountries) {
+
+        return holidayApiService.getCommonHolidays(year, countries, minCountries).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<BatchResult>>> getBatch(@RequestBody List<BatchQuery> queries) {
+
+        return holidayApiService.getBatch(queries).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/weekdayCount/range")
+    public Flux<WeekdayHolidaysForYear> getWeekdayHolidaysCountForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countries") List<String> countries) {
+
+        return holidayApiService.getWeekdayHolidaysCount(fromYear, toYear, countries);
+    }
+
+    @GetMapping("/common/range")
+    public Flux<CommonHolidaysForYear> getCommonHolidaysForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countryOne") String countryCodeOne,
+            @RequestParam("countryTwo") String countryCodeTwo) {
+
+        return holidayApiService.getCommonHolidays(fromYear, toYear, countryCodeOne, countryCodeTwo);
+    }
+
+    @GetMapping(value = "/weekdayCount/range",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<WeekdayHolidaysForYear> streamWeekdayHolidaysCountForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countries") List<String> countries) {
+
+        return holidayApiService.streamWeekdayHolidaysCount(fromYear, toYear, countries);
+    }
+
+    @GetMapping(value = "/common/range", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CommonHolidaysForYear> streamCommonHolidaysForYears(
+            @RequestParam("fromYear") int fromYear,
+            @RequestParam("toYear") int toYear,
+            @RequestParam("countryOne") String countryCodeOne,
+            @RequestParam("countryTwo") String countryCodeTwo) {
+
+        return holidayApiService.streamCommonHolidays(fromYear, toYear, countryCodeOne, countryCodeTwo);
+    }
+}
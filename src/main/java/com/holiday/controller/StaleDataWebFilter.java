@@ -0,0 +1,35 @@
+package com.holiday.controller;
+
+import com.holiday.service.StaleDataMarker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reactive counterpart of the StaleDataHeaderAdvice. Gives every request a stale flag in its Reactor context
+ * and adds the X-Holiday-Data-Stale header when the response is committed if holidays were served stale by then.
+ * Streamed responses are committed with their first element, so only holidays loaded before it can flag them.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StaleDataWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AtomicBoolean stale = new AtomicBoolean();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            if (stale.get()) {
+                response.getHeaders().set(StaleDataMarker.HEADER, "true");
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange).contextWrite(StaleDataMarker.context(stale));
+    }
+}
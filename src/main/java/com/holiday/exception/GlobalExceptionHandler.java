@@ -2,10 +2,13 @@ package com.holiday.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +21,21 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final GlobalExceptionHandler HANDLER = new GlobalExceptionHandler();
+    private static final ExceptionHandlerMethodResolver HANDLER_METHODS =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    /**
+     * The error response the handler of the exception gives, for errors reported inside a larger response,
+     * such as a failed query of a batch request. The handler method is picked the way Spring picks it
+     * for a failed request, from the @ExceptionHandler methods of this class.
+     */
+    @SuppressWarnings("unchecked")
+    public static ResponseEntity<Map<String, Object>> toErrorResponse(Exception ex) {
+        Method handlerMethod = HANDLER_METHODS.resolveMethodByExceptionType(ex.getClass());
+        return (ResponseEntity<Map<String, Object>>) ReflectionUtils.invokeMethod(handlerMethod, HANDLER, ex);
+    }
+
     @ExceptionHandler(InvalidCountryException.class)
     public ResponseEntity<Map<String, Object>> handleInvalidCountryException(InvalidCountryException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -44,6 +62,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequestException(InvalidRequestException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Invalid Request");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("description", "The request parameters are missing, inconsistent or out of range.");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(DataNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleDataNotFoundException(DataNotFoundException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -56,6 +86,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("description", "The holiday data provider is currently unavailable, please try again later.");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(HolidayServiceException.class)
     public ResponseEntity<Map<String, Object>> handleHolidayServiceException(HolidayServiceException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -0,0 +1,8 @@
+package com.holiday.exception;
+
+public class UpstreamThrottledException extends UpstreamUnavailableException {
+
+    public UpstreamThrottledException(String message) {
+        super(message);
+    }
+}
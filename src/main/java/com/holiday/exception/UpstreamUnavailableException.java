@@ -0,0 +1,8 @@
+package com.holiday.exception;
+
+public class UpstreamUnavailableException extends HolidayServiceException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
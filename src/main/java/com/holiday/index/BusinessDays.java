@@ -0,0 +1,120 @@
+package com.holiday.index;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Working-day calendar of one country in one year: the days that are neither a weekend day nor a holiday.
+ * It keeps the running number of business days by day of year, so the business days between two days
+ * of the year are the difference of two prefix sums and the n-th business day from a day is a binary search
+ * over them, instead of walking the calendar day by day.
+ */
+public final class BusinessDays {
+
+    private final int year;
+    private final Set<DayOfWeek> weekend;
+    // counts[d] is the number of business days on days 1 to d of the year, counts[0] is 0
+    private final short[] counts;
+
+    private BusinessDays(int year, Set<DayOfWeek> weekend, short[] counts) {
+        this.year = year;
+        this.weekend = weekend;
+        this.counts = counts;
+    }
+
+    /**
+     * Builds the calendar of the year of the given holidays, with the given days of the week off.
+     */
+    public static BusinessDays of(HolidayIndex holidays, Set<DayOfWeek> weekend) {
+        int year = holidays.year();
+        int length = Year.of(year).length();
+        short[] counts = new short[length + 1];
+        int dayOfWeek = LocalDate.of(year, 1, 1).getDayOfWeek().ordinal();
+        int weekendMask = 0;
+        for (DayOfWeek day : weekend) {
+            weekendMask |= 1 << day.ordinal();
+        }
+
+        for (int dayOfYear = 1; dayOfYear <= length; dayOfYear++, dayOfWeek = (dayOfWeek + 1) % 7) {
+            boolean businessDay = (weekendMask & (1 << dayOfWeek)) == 0 && !holidays.isHoliday(dayOfYear);
+            counts[dayOfYear] = (short) (counts[dayOfYear - 1] + (businessDay ? 1 : 0));
+        }
+        return new BusinessDays(year, weekend.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekend),
+                counts);
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public Set<DayOfWeek> weekend() {
+        return weekend;
+    }
+
+    /**
+     * The number of days in the year.
+     */
+    public int length() {
+        return counts.length - 1;
+    }
+
+    /**
+     * The number of business days in the year.
+     */
+    public int total() {
+        return counts[counts.length - 1];
+    }
+
+    public boolean isBusinessDay(int dayOfYear) {
+        return counts[dayOfYear] != counts[dayOfYear - 1];
+    }
+
+    /**
+     * The number of business days from fromDayOfYear to toDayOfYear, both included, or 0 when from is after to.
+     */
+    public int count(int fromDayOfYear, int toDayOfYear) {
+        return fromDayOfYear > toDayOfYear ? 0 : counts[toDayOfYear] - counts[fromDayOfYear - 1];
+    }
+
+    /**
+     * The day of year of the n-th business day counting forward from fromDayOfYear, which counts itself,
+     * or -1 when the rest of the year has fewer than n business days.
+     */
+    public int nthOnOrAfter(int fromDayOfYear, int n) {
+        int target = counts[fromDayOfYear - 1] + n;
+        return target > total() ? -1 : firstDayWithCount(target);
+    }
+
+    /**
+     * The day of year of the n-th business day counting backward from fromDayOfYear, which counts itself,
+     * or -1 when the year has fewer than n business days up to that day.
+     */
+    public int nthOnOrBefore(int fromDayOfYear, int n) {
+        int target = counts[fromDayOfYear] - n + 1;
+        return target < 1 ? -1 : firstDayWithCount(target);
+    }
+
+    public LocalDate dateOf(int dayOfYear) {
+        return LocalDate.ofYearDay(year, dayOfYear);
+    }
+
+    /**
+     * The first day whose running count reaches count, which is the day that business day falls on.
+     */
+    private int firstDayWithCount(int count) {
+        int low = 1;
+        int high = counts.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (counts[middle] < count) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,291 @@
+package com.holiday.index;
+
+import com.github.benmanes.caffeine.cache.Interner;
+import com.holiday.model.Holiday;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable index of the holidays of one country in one year, built once when the data is loaded.
+ * Holiday dates are kept as a 366-bit set keyed by day of year, with the names in arrays sorted by date,
+ * so lookups, weekday counts and intersections between countries are bit operations instead of
+ * per-request list and map building. When NAGER lists several holidays on the same day,
+ * the day is indexed once under the first holiday's names, with the types of all of them,
+ * while the weekday count still counts each of those holidays, as the /weekdayCount endpoint always has.
+ * This is the form the holidays are cached in: names are interned, since the same names come back
+ * for every year of a country, types are bit flags, and counties and launch years are not kept.
+ * The business-day calendar of the year is built on first use and kept with the index.
+ */
+public final class HolidayIndex {
+
+    private static final int WORDS = 6; // 6 x 64 bits cover the 366 days of a leap year
+    // Weak, so names drop out once no cached index refers to them any more
+    private static final Interner<String> NAMES = Interner.newWeakInterner();
+
+    private final String countryCode;
+    private final int year;
+    private final long[] days;
+    private final short[] daysOfYear;
+    private final String[] names;
+    private final String[] localNames;
+    private final byte[] types;
+    private final int weekdayHolidayCount;
+    private final boolean stale;
+    private volatile BusinessDays businessDays;
+
+    private HolidayIndex(String countryCode, int year, long[] days, short[] daysOfYear,
+                         String[] names, String[] localNames, byte[] types, int weekdayHolidayCount, boolean stale) {
+        this.countryCode = countryCode;
+        this.year = year;
+        this.days = days;
+        this.daysOfYear = daysOfYear;
+        this.names = names;
+        this.localNames = localNames;
+        this.types = types;
+        this.weekdayHolidayCount = weekdayHolidayCount;
+        this.stale = stale;
+    }
+
+    /**
+     * Builds the index from the holidays NAGER returned for the given country and year.
+     * Holidays dated outside the year are ignored.
+     */
+    public static HolidayIndex of(String countryCode, int year, List<Holiday> holidays) {
+        long[] days = new long[WORDS];
+        String[] namesByDay = new String[367];
+        String[] localNamesByDay = new String[367];
+        byte[] typesByDay = new byte[367];
+        int weekdayHolidayCount = 0;
+
+        for (Holiday holiday : holidays) {
+            if (holiday.date() == null || holiday.date().getYear() != year) {
+                continue;
+            }
+            int dayOfYear = holiday.date().getDayOfYear();
+            DayOfWeek dayOfWeek = holiday.date().getDayOfWeek();
+            if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY) {
+                weekdayHolidayCount++;
+            }
+            if (!isSet(days, dayOfYear)) {
+                set(days, dayOfYear);
+                namesByDay[dayOfYear] = holiday.name();
+                localNamesByDay[dayOfYear] = holiday.localName();
+            }
+            typesByDay[dayOfYear] |= HolidayType.flags(holiday.types());
+        }
+
+        int size = cardinality(days);
+        short[] daysOfYear = new short[size];
+        String[] names = new String[size];
+        String[] localNames = new String[size];
+        byte[] types = new byte[size];
+        int i = 0;
+        for (int dayOfYear = nextSetBit(days, 1); dayOfYear > 0; dayOfYear = nextSetBit(days, dayOfYear + 1)) {
+            daysOfYear[i] = (short) dayOfYear;
+            names[i] = intern(namesByDay[dayOfYear]);
+            localNames[i] = intern(localNamesByDay[dayOfYear]);
+            types[i] = typesByDay[dayOfYear];
+            i++;
+        }
+
+        return new HolidayIndex(intern(countryCode.toUpperCase()), year, days, daysOfYear, names, localNames, types,
+                weekdayHolidayCount, false);
+    }
+
+    /**
+     * A copy of this index flagged as stale, served from the last known data while NAGER is being reloaded.
+     */
+    public HolidayIndex asStale() {
+        return stale ? this : new HolidayIndex(countryCode, year, days, daysOfYear, names, localNames, types,
+                weekdayHolidayCount, true);
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public String countryCode() {
+        return countryCode;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    /**
+     * The number of distinct holiday dates.
+     */
+    public int size() {
+        return daysOfYear.length;
+    }
+
+    public boolean isEmpty() {
+        return daysOfYear.length == 0;
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofYearDay(year, daysOfYear[index]);
+    }
+
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    public String localNameAt(int index) {
+        return localNames[index];
+    }
+
+    public Set<HolidayType> typesAt(int index) {
+        return HolidayType.fromFlags(types[index]);
+    }
+
+    public boolean hasType(int index, HolidayType type) {
+        return (types[index] & (1 << type.ordinal())) != 0;
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return date.getYear() == year && isSet(days, date.getDayOfYear());
+    }
+
+    public boolean isHoliday(int dayOfYear) {
+        return isSet(days, dayOfYear);
+    }
+
+    /**
+     * The position of the holiday on the given day of year in the date-sorted arrays, or -1 when it is not a holiday.
+     */
+    public int indexOf(int dayOfYear) {
+        return isSet(days, dayOfYear) ? rank(dayOfYear) : -1;
+    }
+
+    /**
+     * The position of the holiday on the given day of year in the date-sorted arrays,
+     * or the number of holidays before that day when it is not a holiday.
+     */
+    public int rank(int dayOfYear) {
+        int word = (dayOfYear - 1) >>> 6;
+        int rank = 0;
+        for (int i = 0; i < word; i++) {
+            rank += Long.bitCount(days[i]);
+        }
+        long below = (1L << ((dayOfYear - 1) & 63)) - 1;
+        return rank + Long.bitCount(days[word] & below);
+    }
+
+    /**
+     * The number of holidays that fall on Monday to Friday, counted when the index is built.
+     * Unlike the other methods this counts every holiday NAGER listed, including those sharing a date.
+     */
+    public int weekdayHolidayCount() {
+        return weekdayHolidayCount;
+    }
+
+    /**
+     * The business-day calendar of this year for the given weekend. It is built once and kept with the index,
+     * so it is cached, and dropped, together with the holidays it was built from.
+     */
+    public BusinessDays businessDays(Set<DayOfWeek> weekend) {
+        BusinessDays calendar = businessDays;
+        if (calendar == null || !calendar.weekend().equals(weekend)) {
+            calendar = BusinessDays.of(this, weekend);
+            businessDays = calendar;
+        }
+        return calendar;
+    }
+
+    /**
+     * The days of year on which both countries have a holiday, as a bit set (bit n - 1 for day n).
+     */
+    public long[] commonDays(HolidayIndex other) {
+        if (other.year != year) {
+            throw new IllegalArgumentException("Cannot intersect holidays of " + year + " and " + other.year);
+        }
+        long[] common = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            common[i] = days[i] & other.days[i];
+        }
+        return common;
+    }
+
+    /**
+     * The days of year on which at least minCount of the given indexes have a holiday, as a bit set.
+     * When every index must match this is a plain AND; otherwise the set bits of each index are counted per day.
+     */
+    public static long[] sharedDays(List<HolidayIndex> indexes, int minCount) {
+        long[] shared = new long[WORDS];
+        if (indexes.isEmpty() || minCount > indexes.size()) {
+            return shared;
+        }
+        int year = indexes.getFirst().year;
+        for (HolidayIndex index : indexes) {
+            if (index.year != year) {
+                throw new IllegalArgumentException("Cannot intersect holidays of " + year + " and " + index.year);
+            }
+        }
+
+        if (minCount == indexes.size()) {
+            Arrays.fill(shared, -1L);
+            for (HolidayIndex index : indexes) {
+                for (int i = 0; i < WORDS; i++) {
+                    shared[i] &= index.days[i];
+                }
+            }
+            return shared;
+        }
+
+        int[] counts = new int[367];
+        for (HolidayIndex index : indexes) {
+            for (short dayOfYear : index.daysOfYear) {
+                if (++counts[dayOfYear] == minCount) {
+                    set(shared, dayOfYear);
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * The next day of year at or after fromDayOfYear whose bit is set, or -1 if there is none.
+     */
+    public static int nextSetBit(long[] bits, int fromDayOfYear) {
+        int bit = fromDayOfYear - 1;
+        int word = bit >>> 6;
+        if (word >= WORDS) {
+            return -1;
+        }
+        long remaining = bits[word] & (-1L << (bit & 63));
+        while (true) {
+            if (remaining != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(remaining) + 1;
+            }
+            if (++word == WORDS) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+    }
+
+    private static String intern(String name) {
+        return name == null ? null : NAMES.intern(name);
+    }
+
+    private static boolean isSet(long[] bits, int dayOfYear) {
+        return (bits[(dayOfYear - 1) >>> 6] & (1L << ((dayOfYear - 1) & 63))) != 0;
+    }
+
+    private static void set(long[] bits, int dayOfYear) {
+        bits[(dayOfYear - 1) >>> 6] |= 1L << ((dayOfYear - 1) & 63);
+    }
+
+    private static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package com.holiday.index;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The holiday types NAGER reports, kept in a HolidayIndex as one bit per type instead of a list of strings.
+ */
+public enum HolidayType {
+
+    PUBLIC("Public"),
+    BANK("Bank"),
+    SCHOOL("School"),
+    AUTHORITIES("Authorities"),
+    OPTIONAL("Optional"),
+    OBSERVANCE("Observance");
+
+    private static final HolidayType[] VALUES = values();
+
+    private final String nagerName;
+
+    HolidayType(String nagerName) {
+        this.nagerName = nagerName;
+    }
+
+    /**
+     * The type name as it appears in NAGER responses.
+     */
+    public String nagerName() {
+        return nagerName;
+    }
+
+    /**
+     * The bit set of the given NAGER type names, ignoring the ones that are not known.
+     */
+    public static byte flags(Collection<String> nagerNames) {
+        int flags = 0;
+        if (nagerNames != null) {
+            for (String nagerName : nagerNames) {
+                for (HolidayType type : VALUES) {
+                    if (type.nagerName.equals(nagerName)) {
+                        flags |= 1 << type.ordinal();
+                    }
+                }
+            }
+        }
+        return (byte) flags;
+    }
+
+    /**
+     * The type with the given enum or NAGER name, ignoring case, or null when there is none.
+     */
+    public static HolidayType fromName(String name) {
+        for (HolidayType type : VALUES) {
+            if (type.name().equalsIgnoreCase(name) || type.nagerName.equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public static Set<HolidayType> fromFlags(byte flags) {
+        Set<HolidayType> types = EnumSet.noneOf(HolidayType.class);
+        for (HolidayType type : VALUES) {
+            if ((flags & (1 << type.ordinal())) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+}
@@ -0,0 +1,22 @@
+package com.holiday.model;
+
+import java.util.List;
+
+/**
+ * Represents one query of a batch request, answered as the endpoint of its type would answer it.
+ *
+ * @param type The endpoint the query stands for: "lastThree", "weekdayCount" or "common".
+ * @param country The country code, for a lastThree query.
+ * @param year The year, for a weekdayCount or common query.
+ * @param countries The country codes, for a weekdayCount query.
+ * @param countryOne The first country code, for a common query.
+ * @param countryTwo The second country code, for a common query.
+ */
+public record BatchQuery(
+        String type,
+        String country,
+        Integer year,
+        List<String> countries,
+        String countryOne,
+        String countryTwo
+) {}
@@ -0,0 +1,12 @@
+package com.holiday.model;
+
+/**
+ * Represents the result of one query of a batch request.
+ *
+ * @param status The HTTP status the endpoint of the query would have answered with.
+ * @param body The response of that endpoint, or its error response when the query failed.
+ */
+public record BatchResult(
+        int status,
+        Object body
+) {}
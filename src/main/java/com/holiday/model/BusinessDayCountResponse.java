@@ -0,0 +1,20 @@
+package com.holiday.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the number of business days in a date range in a specific country.
+ *
+ * @param country The code of the country whose holidays and weekend were applied.
+ * @param from The first date of the range, in ISO format (yyyy-MM-dd).
+ * @param to The last date of the range, included, in ISO format (yyyy-MM-dd).
+ * @param businessDays The number of days in the range that are neither a weekend day nor a holiday.
+ */
+public record BusinessDayCountResponse(
+        String country,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate from,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate to,
+        int businessDays
+) {}
@@ -0,0 +1,20 @@
+package com.holiday.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the business day a number of business days away from a date in a specific country.
+ *
+ * @param country The code of the country whose holidays and weekend were applied.
+ * @param date The date that was counted from, in ISO format (yyyy-MM-dd).
+ * @param days The number of business days added, negative when counting backward.
+ * @param businessDay The resulting business day, in ISO format (yyyy-MM-dd).
+ */
+public record BusinessDayResponse(
+        String country,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+        int days,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate businessDay
+) {}
@@ -0,0 +1,23 @@
+package com.holiday.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Represents the dates shared by at least a minimum number of the requested countries.
+ *
+ * @param year The requested year.
+ * @param countries The requested countries.
+ * @param minCountries The minimum number of countries that must share a date.
+ * @param commonHolidays The shared dates, sorted by date.
+ * @param message An optional message, e.g., if no common holidays are found.
+ */
+public record CommonHolidaysAcrossResponse(
+    int year,
+    List<String> countries,
+    int minCountries,
+    List<SharedHoliday> commonHolidays,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String message
+) {}
@@ -0,0 +1,11 @@
+package com.holiday.model;
+
+import java.util.List;
+
+/**
+ * Represents the common holidays between two countries in one year of a range.
+ *
+ * @param year The year.
+ * @param commonHolidays The common holidays in that year, sorted by date.
+ */
+public record CommonHolidaysForYear(int year, List<CommonHoliday> commonHolidays) {}
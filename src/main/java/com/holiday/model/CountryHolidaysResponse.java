@@ -0,0 +1,14 @@
+package com.holiday.model;
+
+import java.util.List;
+
+/**
+ * Represents the response containing the last celebrated or next upcoming holidays for a specific country.
+ *
+ * @param country  The code of the country for which the holidays are listed.
+ * @param holidays The holidays, nearest to the current date first.
+ */
+public record CountryHolidaysResponse(
+    String country,
+    List<HolidayDetails> holidays
+) {}
@@ -0,0 +1,22 @@
+package com.holiday.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the response to whether a date is a holiday in a specific country.
+ *
+ * @param country The code of the country that was checked.
+ * @param date The date that was checked, in ISO format (yyyy-MM-dd).
+ * @param holiday Whether the date is a holiday (of the requested type, if any).
+ * @param name The name of the holiday in English, or null when the date is not a holiday.
+ * @param localName The local name of the holiday, or null when the date is not a holiday.
+ */
+public record HolidayCheckResponse(
+        String country,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+        boolean holiday,
+        String name,
+        String localName
+) {}
@@ -0,0 +1,14 @@
+package com.holiday.model;
+
+import java.time.LocalDate;
+
+/**
+ * Represents an API response serialized once and served as-is until its content may change.
+ *
+ * @param body The JSON body of the response.
+ * @param validUntil The first day on which the response may be different; it expires at the start of that day.
+ */
+public record SerializedResponse(
+        byte[] body,
+        LocalDate validUntil
+) {}
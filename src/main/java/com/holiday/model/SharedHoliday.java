@@ -0,0 +1,21 @@
+package com.holiday.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a date celebrated in several of the requested countries.
+ *
+ * @param date The date of the holiday.
+ * @param countries The countries celebrating on that date, in request order.
+ * @param localNames The local name of the holiday per country.
+ */
+public record SharedHoliday(
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate date,
+    List<String> countries,
+    Map<String, String> localNames
+) {}
@@ -0,0 +1,11 @@
+package com.holiday.model;
+
+import java.util.List;
+
+/**
+ * Represents the weekday holiday counts of a list of countries in one year of a range.
+ *
+ * @param year the year.
+ * @param countries the countries, sorted by weekday holidays count in descending order.
+ */
+public record WeekdayHolidaysForYear(int year, List<CountryHolidayCount> countries) {}
@@ -0,0 +1,173 @@
+package com.holiday.repository;
+
+import com.holiday.model.Holiday;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local on-disk store for the holidays of past years.
+ * Past years no longer change in NAGER, so once fetched they are written to a compact binary file
+ * per country and year, and served from there after a restart instead of calling the API again.
+ * The holidays of the current and future years are never stored, as NAGER may still update them.
+ * File names are built from the country code, so anything but a two-letter code is neither read nor written.
+ */
+@Component
+@Slf4j
+public class HolidayDiskStore {
+
+    private static final int MAGIC = 0x484F4C31; // "HOL1"
+    private static final Pattern COUNTRY_CODE = Pattern.compile("[A-Z]{2}");
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public HolidayDiskStore(@Value("${holiday.store.enabled:false}") boolean enabled,
+                            @Value("${holiday.store.directory:data/holidays}") Path directory) {
+        this.enabled = enabled;
+        this.directory = directory;
+    }
+
+    public Optional<List<Holiday>> read(String countryCode, int year) {
+        if (!enabled || !isStorable(countryCode)) {
+            return Optional.empty();
+        }
+
+        Path file = fileFor(countryCode, year);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return Optional.of(readHolidays(in));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable holiday file {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return Optional.empty();
+        }
+    }
+
+    public void write(String countryCode, int year, List<Holiday> holidays) {
+        if (!enabled || year >= Year.now().getValue() || !isStorable(countryCode)) {
+            return;
+        }
+
+        Path file = fileFor(countryCode, year);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                writeHolidays(out, holidays);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to store holidays for country: {} and year: {}: {}", countryCode, year, e.getMessage());
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private Path fileFor(String countryCode, int year) {
+        return directory.resolve(countryCode.toUpperCase(Locale.ROOT)).resolve(year + ".bin");
+    }
+
+    private static boolean isStorable(String countryCode) {
+        if (countryCode != null && COUNTRY_CODE.matcher(countryCode.toUpperCase(Locale.ROOT)).matches()) {
+            return true;
+        }
+        log.warn("Not storing holidays for invalid country code: {}", countryCode);
+        return false;
+    }
+
+    private static void writeHolidays(DataOutputStream out, List<Holiday> holidays) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(holidays.size());
+        for (Holiday holiday : holidays) {
+            out.writeInt((int) holiday.date().toEpochDay());
+            writeString(out, holiday.localName());
+            writeString(out, holiday.name());
+            writeString(out, holiday.countryCode());
+            writeStrings(out, holiday.counties());
+            out.writeInt(holiday.launchYear() == null ? Integer.MIN_VALUE : holiday.launchYear());
+            writeStrings(out, holiday.types());
+        }
+    }
+
+    private static List<Holiday> readHolidays(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Unknown file format");
+        }
+
+        int count = in.readInt();
+        List<Holiday> holidays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = LocalDate.ofEpochDay(in.readInt());
+            String localName = readString(in);
+            String name = readString(in);
+            String countryCode = readString(in);
+            List<String> counties = readStrings(in);
+            int launchYear = in.readInt();
+            List<String> types = readStrings(in);
+            holidays.add(new Holiday(date, localName, name, countryCode, counties,
+                    launchYear == Integer.MIN_VALUE ? null : launchYear, types));
+        }
+        return List.copyOf(holidays);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Unable to delete {}", file, e);
+        }
+    }
+}
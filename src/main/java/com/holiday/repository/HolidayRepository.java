@@ -0,0 +1,164 @@
+package com.holiday.repository;
+
+import com.holiday.config.CacheConfig;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.Holiday;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caching layer between the HolidayApiService and the HolidayApiClient.
+ * Lives in its own bean so that calls from the service go through the Spring cache proxy
+ * and are served from the "holidays" and "countries" caches instead of the NAGER API.
+ * Holidays are cached as a HolidayIndex built once per country and year when the data is loaded.
+ * Cache misses are read from the HolidayDiskStore when possible, and otherwise loaded through
+ * the SingleFlightHolidayLoader and stored on disk for later restarts.
+ * The reactive variants read and fill the same cache entries without blocking.
+ * Every loaded index is also kept in the longer-lived "holidays-stale" tier. Once an entry has expired,
+ * the last known index is served flagged as stale while it is reloaded in the background, so requests
+ * neither wait on nor fail with an unavailable NAGER for data that was loaded before.
+ */
+@Component
+@Slf4j
+@AllArgsConstructor
+public class HolidayRepository {
+
+    private static final String AVAILABLE_COUNTRIES_KEY = "available_countries";
+
+    private final SingleFlightHolidayLoader holidayLoader;
+    private final HolidayDiskStore holidayStore;
+    private final CacheManager cacheManager;
+    // Keys of the stale entries being reloaded in the background, so each is reloaded by a single thread.
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Cacheable(value = CacheConfig.HOLIDAYS_CACHE, sync = true,
+            key = "T(com.holiday.repository.HolidayRepository).holidaysKey(#countryCode, #year)")
+    public HolidayIndex getHolidayIndex(String countryCode, int year) {
+        Optional<List<Holiday>> stored = holidayStore.read(countryCode, year);
+        if (stored.isPresent()) {
+            return HolidayIndex.of(countryCode, year, stored.get());
+        }
+        HolidayIndex stale = getStaleHolidayIndex(countryCode, year);
+        if (stale != null) {
+            return stale;
+        }
+        return index(countryCode, year, holidayLoader.fetchHolidaysForYear(countryCode, year));
+    }
+
+    /**
+     * Reloads the holidays from NAGER and replaces the cached entry, e.g. before it expires.
+     */
+    @CachePut(value = CacheConfig.HOLIDAYS_CACHE,
+            key = "T(com.holiday.repository.HolidayRepository).holidaysKey(#countryCode, #year)")
+    public HolidayIndex refreshHolidayIndex(String countryCode, int year) {
+        return index(countryCode, year, holidayLoader.fetchHolidaysForYear(countryCode, year));
+    }
+
+    @Cacheable(value = CacheConfig.COUNTRIES_CACHE, sync = true, key = "'" + AVAILABLE_COUNTRIES_KEY + "'")
+    public Set<String> getAvailableCountries() {
+        return holidayLoader.fetchAvailableCountries();
+    }
+
+    public Mono<HolidayIndex> getHolidayIndexAsync(String countryCode, int year) {
+        return cached(CacheConfig.HOLIDAYS_CACHE, holidaysKey(countryCode, year),
+                () -> Mono.fromCallable(() -> holidayStore.read(countryCode, year))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(stored -> stored.map(holidays -> Mono.just(HolidayIndex.of(countryCode, year, holidays)))
+                                .or(() -> Optional.ofNullable(getStaleHolidayIndex(countryCode, year)).map(Mono::just))
+                                .orElseGet(() -> holidayLoader.fetchHolidaysForYearAsync(countryCode, year)
+                                        .publishOn(Schedulers.boundedElastic())
+                                        .map(holidays -> index(countryCode, year, holidays)))));
+    }
+
+    public Mono<Set<String>> getAvailableCountriesAsync() {
+        return cached(CacheConfig.COUNTRIES_CACHE, AVAILABLE_COUNTRIES_KEY, holidayLoader::fetchAvailableCountriesAsync);
+    }
+
+    /**
+     * The cached index of the country and year, or null when it is not loaded yet.
+     * Reads the cache directly instead of through the cache proxy, for point lookups on the hot path.
+     */
+    public HolidayIndex getCachedHolidayIndex(String countryCode, int year) {
+        if (countryCode == null) {
+            return null;
+        }
+        Cache.ValueWrapper cached = cache(CacheConfig.HOLIDAYS_CACHE).get(holidaysKey(countryCode, year));
+        return cached != null ? (HolidayIndex) cached.get() : null;
+    }
+
+    public static String holidaysKey(String countryCode, int year) {
+        return countryCode.toUpperCase() + "_" + year;
+    }
+
+    /**
+     * Indexes freshly loaded holidays and keeps them on disk and in the stale tier.
+     */
+    private HolidayIndex index(String countryCode, int year, List<Holiday> holidays) {
+        holidayStore.write(countryCode, year, holidays);
+        HolidayIndex index = HolidayIndex.of(countryCode, year, holidays);
+        cache(CacheConfig.STALE_HOLIDAYS_CACHE).put(holidaysKey(countryCode, year), index);
+        return index;
+    }
+
+    /**
+     * Returns the last known holidays, flagged as stale, and reloads them from NAGER in the background,
+     * or null when they were never loaded. The stale copy is served without waiting for NAGER,
+     * and replaced in the cache as soon as the reload succeeds. No reload is started while one is
+     * still running for the same country and year.
+     */
+    private HolidayIndex getStaleHolidayIndex(String countryCode, int year) {
+        String key = holidaysKey(countryCode, year);
+        HolidayIndex last = cache(CacheConfig.STALE_HOLIDAYS_CACHE).get(key, HolidayIndex.class);
+        if (last == null) {
+            return null;
+        }
+        if (refreshing.add(key)) {
+            Thread.ofVirtual().name("holiday-refresh-" + key).start(() -> {
+                try {
+                    cache(CacheConfig.HOLIDAYS_CACHE).put(key,
+                            index(countryCode, year, holidayLoader.fetchHolidaysForYear(countryCode, year)));
+                } catch (RuntimeException e) {
+                    log.warn("Serving stale holidays for {} {}, reload failed: {}", countryCode, year, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        }
+        return last.asStale();
+    }
+
+    private Cache cache(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName));
+    }
+
+    /**
+     * Reads the entry from the cache, or loads and stores it on a miss. Unlike the {@code sync = true}
+     * lookups, concurrent misses for the same key are not coalesced by the cache here: each one runs the loader,
+     * and it is the SingleFlightHolidayLoader behind it that lets them share a single NAGER call.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> Mono<V> cached(String cacheName, String key, Supplier<Mono<V>> loader) {
+        Cache cache = cache(cacheName);
+        return Mono.defer(() -> {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                return Mono.just((V) cached.get());
+            }
+            return loader.get().doOnNext(value -> cache.put(key, value));
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.holiday.repository;
+
+import com.holiday.client.HolidayApiClient;
+import com.holiday.model.Holiday;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Loader in front of the HolidayApiClient that coalesces concurrent requests for the same data.
+ * The first caller for a key performs the upstream call, every caller arriving while it is
+ * still in flight waits for and shares its result (or exception) instead of calling NAGER again.
+ * Blocking and reactive callers share the same in-flight calls.
+ * <p>
+ * Blocking cache misses already go through {@code @Cacheable(sync = true)}, where Caffeine makes
+ * concurrent callers wait for the one loading the entry, so they reach this loader once per key.
+ * The callers coalesced here are those of the reactive lookups, which fill the cache without that lock,
+ * of the stale-data refresh and of the explicit cache refresh, each of which calls this loader directly.
+ * They are published as the "holiday.upstream.coalesced" counter, which therefore does not count the
+ * blocking callers coalesced by the cache.
+ */
+@Component
+public class SingleFlightHolidayLoader {
+
+    private static final String COUNTRIES_KEY = "countries";
+
+    private final HolidayApiClient holidayApiClient;
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter holidaysCoalesced;
+    private final Counter countriesCoalesced;
+
+    public SingleFlightHolidayLoader(HolidayApiClient holidayApiClient, MeterRegistry meterRegistry) {
+        this.holidayApiClient = holidayApiClient;
+        this.holidaysCoalesced = coalescedCounter(meterRegistry, "holidays");
+        this.countriesCoalesced = coalescedCounter(meterRegistry, "countries");
+    }
+
+    public List<Holiday> fetchHolidaysForYear(String countryCode, int year) {
+        return load(holidaysKey(countryCode, year), holidaysCoalesced,
+                () -> holidayApiClient.fetchHolidaysForYear(countryCode, year));
+    }
+
+    public Mono<List<Holiday>> fetchHolidaysForYearAsync(String countryCode, int year) {
+        return loadAsync(holidaysKey(countryCode, year), holidaysCoalesced,
+                () -> holidayApiClient.fetchHolidaysForYearAsync(countryCode, year));
+    }
+
+    public Set<String> fetchAvailableCountries() {
+        return load(COUNTRIES_KEY, countriesCoalesced, holidayApiClient::fetchAvailableCountries);
+    }
+
+    public Mono<Set<String>> fetchAvailableCountriesAsync() {
+        return loadAsync(COUNTRIES_KEY, countriesCoalesced, holidayApiClient::fetchAvailableCountriesAsync);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V load(String key, Counter coalesced, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = (CompletableFuture<V>) inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Mono<V> loadAsync(String key, Counter coalesced, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = (CompletableFuture<V>) inFlight.putIfAbsent(key, call);
+
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            return loader.get()
+                    .doOnSuccess(call::complete)
+                    .doOnError(call::completeExceptionally)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            call.cancel(false);
+                        }
+                        inFlight.remove(key, call);
+                    });
+        });
+    }
+
+    private static String holidaysKey(String countryCode, int year) {
+        return "holidays:" + countryCode.toUpperCase() + "_" + year;
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter coalescedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("holiday.upstream.coalesced")
+                .description("Reactive and refresh callers that shared an in-flight upstream call instead of making their own")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
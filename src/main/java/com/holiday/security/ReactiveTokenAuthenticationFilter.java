@@ -0,0 +1,37 @@
+package com.holiday.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+
+/**
+ * ReactiveTokenAuthenticationFilter is the reactive counterpart of the TokenAuthenticationFilter.
+ * If the Authorization header carries the valid token, it sets the authentication in the reactive SecurityContext.
+ * It is only added to the security filter chain, not registered as a bean, so it does not run twice per request.
+ */
+public class ReactiveTokenAuthenticationFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (token != null && token.startsWith("Bearer ")) {
+            token = token.substring(7);
+
+            if (TokenAuthenticationFilter.VALID_TOKEN.equals(token)) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("api-user",
+                        null, new ArrayList<>());
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -18,9 +19,10 @@ import java.util.ArrayList;
  * This filter is used to secure the API endpoints by ensuring that only requests with a valid token can access them.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final String VALID_TOKEN = "holiday-api-token";
+    static final String VALID_TOKEN = "holiday-api-token";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
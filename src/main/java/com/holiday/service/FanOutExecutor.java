@@ -0,0 +1,110 @@
+package com.holiday.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Runs independent, blocking lookups (e.g. one per country) concurrently on virtual threads.
+ * Each fan-out is capped at a configurable number of tasks in flight, so a single request
+ * for many countries cannot flood the Holiday API with calls.
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maxConcurrency;
+
+    public FanOutExecutor(@Value("${holiday.fan-out.max-concurrency:16}") int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("holiday.fan-out.max-concurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Submits the task for every item and returns the futures in the order of the items.
+     * Permits are handed out fairly, so items earlier in the list tend to finish first.
+     * A task whose future is cancelled before it gets a permit is never run.
+     */
+    public <T, R> List<CompletableFuture<R>> submitAll(Collection<T> items, Function<T, R> task) {
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        return items.stream()
+                .map(item -> {
+                    CompletableFuture<R> future = new CompletableFuture<>();
+                    executor.execute(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            if (!future.isDone()) {
+                                future.complete(task.apply(item));
+                            }
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                    return future;
+                })
+                .toList();
+    }
+
+    /**
+     * Cancels the tasks of the futures that have not started yet, e.g. once nobody waits for their results.
+     * Tasks already running finish, but their results are dropped.
+     */
+    public static void cancelAll(Collection<? extends CompletableFuture<?>> futures) {
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    /**
+     * Waits for the future and rethrows the exception raised by the task itself,
+     * so callers can handle it as if the task had run on the calling thread.
+     */
+    public static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The results of the futures in the order they complete rather than the order they were submitted in,
+     * each yielded as soon as it is ready. A failed task rethrows its exception when the stream reaches it.
+     * Closing the stream cancels the tasks that have not started yet.
+     */
+    public static <R> Stream<R> inCompletionOrder(List<CompletableFuture<R>> futures) {
+        BlockingQueue<CompletableFuture<R>> completed = new LinkedBlockingQueue<>();
+        futures.forEach(future -> future.whenComplete((result, e) -> completed.add(future)));
+        return IntStream.range(0, futures.size()).mapToObj(i -> {
+            try {
+                return join(completed.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a fan-out task", e);
+            }
+        }).onClose(() -> cancelAll(futures));
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
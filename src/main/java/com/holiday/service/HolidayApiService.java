@@ -1,26 +1,41 @@
 package com.holiday.service;
 
-import com.holiday.client.HolidayApiClient;
+import com.holiday.config.BusinessDayProperties;
 import com.holiday.exception.DataNotFoundException;
+import com.holiday.exception.GlobalExceptionHandler;
 import com.holiday.exception.HolidayServiceException;
 import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.InvalidRequestException;
 import com.holiday.exception.InvalidYearException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.index.BusinessDays;
+import com.holiday.index.HolidayIndex;
+import com.holiday.index.HolidayType;
 import com.holiday.model.*;
+import com.holiday.repository.HolidayRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Year;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Service for interacting with the Holiday API.
  * This service provides methods to fetch holiday data for various use cases,
  * including retrieving the last three celebrated holidays, counting weekday holidays,
- * and finding common holidays between two countries.
+ * finding common holidays between two or more countries, and business-day arithmetic,
+ * one query at a time or as a batch.
  */
 @Service
 @AllArgsConstructor
@@ -29,80 +44,648 @@ public class HolidayApiService {
 
     private static final int START_YEAR = 1975;
     private static final int END_YEAR = 2075;
-    private final HolidayApiClient holidayApiClient;
+    private static final int MAX_HOLIDAY_COUNT = 50;
+    private static final int MAX_BUSINESS_DAYS = 1000;
+    private static final int MAX_BATCH_QUERIES = 100;
+    static final String BATCH_LAST_THREE = "lastThree";
+    static final String BATCH_WEEKDAY_COUNT = "weekdayCount";
+    static final String BATCH_COMMON = "common";
+    private final HolidayRepository holidayRepository;
+    private final FanOutExecutor fanOutExecutor;
+    private final LastThreeHolidaysCache lastThreeHolidaysCache;
+    private final BusinessDayProperties businessDayProperties;
 
     public LastThreeHolidaysResponse getLastThreeCelebratedHolidays(String countryCode) {
         log.info("Fetching last three celebrated holidays for country: {}", countryCode);
         validateCountryCode(countryCode);
 
-        List<Holiday> allHolidays = new ArrayList<>();
+        HolidayWalk walk = walkHolidays(countryCode, LocalDate.now(), 3, false);
+        return new LastThreeHolidaysResponse(countryCode.toUpperCase(), walk.holidays());
+    }
+
+    /**
+     * The last three celebrated holidays serialized as JSON, served from the LastThreeHolidaysCache
+     * until the country's next holiday has passed.
+     */
+    public byte[] getLastThreeCelebratedHolidaysJson(String countryCode) {
+        log.info("Fetching last three celebrated holidays for country: {}", countryCode);
         LocalDate currentDate = LocalDate.now();
-        int currentYear = currentDate.getYear();
+        Optional<byte[]> cached = lastThreeHolidaysCache.get(countryCode, currentDate);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        if (validateCurrentYear(currentYear)) {
-            try {
-                List<Holiday> yearHolidays = getHolidaysForYear(countryCode, currentYear);
-                allHolidays.addAll(yearHolidays);
-            } catch (Exception e) {
-                throw new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
-            }
+        validateCountryCode(countryCode);
+        HolidayWalk walk = walkHolidays(countryCode, currentDate, 3, false);
+        return lastThreeHolidaysCache.put(
+                new LastThreeHolidaysResponse(countryCode.toUpperCase(), walk.holidays()), walk.indexes(), currentDate);
+    }
+
+    /**
+     * The last count holidays celebrated before today, latest first, going back into earlier years as needed.
+     */
+    public CountryHolidaysResponse getCelebratedHolidays(String countryCode, int count) {
+        log.info("Fetching last {} celebrated holidays for country: {}", count, countryCode);
+        validateHolidayCount(count);
+        validateCountryCode(countryCode);
+
+        HolidayWalk walk = walkHolidays(countryCode, LocalDate.now(), count, false);
+        return new CountryHolidaysResponse(countryCode.toUpperCase(), walk.holidays());
+    }
+
+    /**
+     * The next count holidays from today on, earliest first, going on into later years as needed.
+     */
+    public CountryHolidaysResponse getUpcomingHolidays(String countryCode, int count) {
+        log.info("Fetching next {} holidays for country: {}", count, countryCode);
+        validateHolidayCount(count);
+        validateCountryCode(countryCode);
+
+        HolidayWalk walk = walkHolidays(countryCode, LocalDate.now(), count, true);
+        return new CountryHolidaysResponse(countryCode.toUpperCase(), walk.holidays());
+    }
+
+    /**
+     * Whether the date is a holiday in the country, optionally only counting holidays of the given type.
+     * The check is a bit test on the cached index of that year.
+     */
+    public HolidayCheckResponse isHoliday(String countryCode, String date, String type) {
+        log.debug("Checking whether {} is a holiday in country: {}", date, countryCode);
+        LocalDate day = parseDate(date);
+        HolidayType holidayType = parseHolidayType(type);
+
+        // Only valid countries and years are ever cached, so a cached index needs no further validation.
+        HolidayIndex index = holidayRepository.getCachedHolidayIndex(countryCode, day.getYear());
+        if (index == null) {
+            validateYear(day.getYear());
+            validateCountryCode(countryCode);
+            index = getHolidayIndex(countryCode, day.getYear());
         }
+        StaleDataMarker.markIfStale(List.of(index));
+        return toHolidayCheckResponse(countryCode, day, holidayType, index);
+    }
+
+    /**
+     * The business day that is days business days after the date, or before it when days is negative,
+     * skipping the country's weekend and holidays. Counting goes on into later or earlier years as needed.
+     */
+    public BusinessDayResponse addBusinessDays(String countryCode, String date, int days) {
+        log.debug("Adding {} business days to {} for country: {}", days, date, countryCode);
+        LocalDate day = parseDate(date);
+        validateBusinessDays(days);
+        validateYear(day.getYear());
+        validateCountryCode(countryCode);
 
-        if (allHolidays.isEmpty()) {
-            throw new DataNotFoundException("No holiday data found for country: " + countryCode);
+        Set<DayOfWeek> weekend = businessDayProperties.weekendOf(countryCode);
+        BusinessDayWalk walk = new BusinessDayWalk(day, days);
+        List<HolidayIndex> indexes = new ArrayList<>();
+        while (!walk.isDone()) {
+            validateYear(walk.year());
+            HolidayIndex index = getHolidayIndex(countryCode, walk.year());
+            indexes.add(index);
+            walk.add(index.businessDays(weekend));
         }
 
-        List<Holiday> celebratedHolidays = allHolidays.stream()
-                .filter(holiday -> holiday.date().isBefore(currentDate))
-                .sorted((h1, h2) -> h2.date().compareTo(h1.date()))
-                .limit(3)
-                .toList();
+        StaleDataMarker.markIfStale(indexes);
+        return new BusinessDayResponse(countryCode.toUpperCase(), day, days, walk.businessDay());
+    }
 
-        if (celebratedHolidays.isEmpty()) {
-            throw new DataNotFoundException("No celebrated holidays found for country: " + countryCode);
+    /**
+     * The first business day after the date.
+     */
+    public BusinessDayResponse getNextBusinessDay(String countryCode, String date) {
+        return addBusinessDays(countryCode, date, 1);
+    }
+
+    /**
+     * The number of business days from one date to another, both included.
+     * Every year of the range is counted with two reads of its prefix sums; the years that are not cached yet
+     * are loaded in parallel.
+     */
+    public BusinessDayCountResponse countBusinessDays(String countryCode, String from, String to) {
+        log.debug("Counting business days from {} to {} for country: {}", from, to, countryCode);
+        LocalDate fromDate = parseDate(from);
+        LocalDate toDate = parseDate(to);
+        validateDateRange(fromDate, toDate);
+
+        // Only valid countries and years are ever cached, so cached indexes need no further validation.
+        List<HolidayIndex> indexes = getCachedHolidayIndexes(countryCode, fromDate.getYear(), toDate.getYear());
+        if (indexes == null) {
+            validateCountryCode(countryCode);
+            indexes = joinAll(getHolidayIndexes(fromDate.getYear(), toDate.getYear(), List.of(countryCode)).stream()
+                    .map(List::getFirst)
+                    .toList());
         }
+        StaleDataMarker.markIfStale(indexes);
+        return toBusinessDayCountResponse(countryCode, fromDate, toDate, indexes,
+                businessDayProperties.weekendOf(countryCode));
+    }
+
+    /**
+     * Answers every query of a batch, in order, as the endpoint of its type would answer it.
+     * The holidays of each distinct country and year the batch needs are loaded once, concurrently,
+     * before the queries run, and a failing query only fails its own result. The year before is only loaded
+     * for the lastThree queries that need it once the current year is known.
+     */
+    public List<BatchResult> getBatch(List<BatchQuery> queries) {
+        log.info("Running a batch of {} queries", queries == null ? 0 : queries.size());
+        validateBatch(queries);
 
-        List<HolidayDetails> holidayDetails = celebratedHolidays.stream()
-                .map(h -> new HolidayDetails(h.date(), h.name()))
-                .collect(Collectors.toList());
+        LocalDate currentDate = LocalDate.now();
+        preload(batchCountryYears(queries, holidayRepository.getAvailableCountries(), currentDate.getYear()));
+        preload(batchPreviousYears(queries,
+                countryCode -> holidayRepository.getCachedHolidayIndex(countryCode, currentDate.getYear()), currentDate));
 
-        return new LastThreeHolidaysResponse(countryCode.toUpperCase(), holidayDetails);
+        List<BatchResult> results = new ArrayList<>(queries.size());
+        for (BatchQuery query : queries) {
+            results.add(runBatchQuery(query));
+        }
+        return results;
     }
 
     public WeekdayHolidaysResponse getWeekdayHolidaysCount(int year, List<String> countryCodes) {
         log.info("Fetching weekday holidays count for year: {} and countries: {}", year, countryCodes);
         validateYear(year);
+        validateCountryCodesNotEmpty(countryCodes);
 
-        if (countryCodes == null || countryCodes.isEmpty()) {
-            throw new InvalidCountryException("Country codes list cannot be empty");
+        List<CountryHolidayCount> results = getHolidayIndexes(year, countryCodes).stream()
+                .map(holidays -> toCountryHolidayCount(holidays.countryCode(), holidays))
+                .toList();
+
+        return toWeekdayHolidaysResponse(year, results, List.of());
+    }
+
+    public CommonHolidaysResponse getCommonHolidays(int year, String countryCodeOne, String countryCodeTwo) {
+        log.info("Fetching common holidays for year: {}, countryOne: {}, countryTwo: {}", year, countryCodeOne, countryCodeTwo);
+        validateYear(year);
+        validateCountryCode(countryCodeOne);
+        validateCountryCode(countryCodeTwo);
+
+        HolidayIndex holidaysOne = holidayRepository.getHolidayIndex(countryCodeOne, year);
+        HolidayIndex holidaysTwo = holidayRepository.getHolidayIndex(countryCodeTwo, year);
+        StaleDataMarker.markIfStale(List.of(holidaysOne, holidaysTwo));
+
+        return toCommonHolidaysResponse(year, countryCodeOne, countryCodeTwo, holidaysOne, holidaysTwo);
+    }
+
+    /**
+     * Finds the dates shared by at least minCountries of the given countries, e.g. every one of them.
+     * The countries are loaded in parallel and intersected on their HolidayIndex bit sets.
+     */
+    public CommonHolidaysAcrossResponse getCommonHolidays(int year, List<String> countryCodes, Integer minCountries) {
+        log.info("Fetching common holidays for year: {}, countries: {}, minCountries: {}", year, countryCodes, minCountries);
+        validateYear(year);
+        List<String> countries = distinctCountryCodes(countryCodes);
+        int minimum = validateMinCountries(minCountries, countries.size());
+
+        return toCommonHolidaysAcrossResponse(year, getHolidayIndexes(year, countries), minimum);
+    }
+
+    /**
+     * Counts the weekday holidays of every country for each year from fromYear to toYear.
+     * All country/year lookups start right away, and the returned stream yields the years in order
+     * as soon as each one is loaded, so callers can write results out without holding the whole range.
+     * The first year is loaded before the stream is returned, and closing the stream cancels the lookups
+     * that have not started yet.
+     */
+    public Stream<WeekdayHolidaysForYear> getWeekdayHolidaysCount(int fromYear, int toYear, List<String> countryCodes) {
+        log.info("Fetching weekday holidays count for years: {}-{} and countries: {}", fromYear, toYear, countryCodes);
+        validateYearRange(fromYear, toYear);
+        validateCountryCodesNotEmpty(countryCodes);
+        validateCountryCodes(countryCodes);
+
+        return inYearOrder(fromYear, getHolidayIndexes(fromYear, toYear, countryCodes), (year, indexes) -> {
+            List<CountryHolidayCount> results = indexes.stream()
+                    .map(holidays -> toCountryHolidayCount(holidays.countryCode(), holidays))
+                    .toList();
+            return new WeekdayHolidaysForYear(year, toWeekdayHolidaysResponse(year, results, List.of()).countries());
+        });
+    }
+
+    /**
+     * Finds the common holidays between two countries for each year from fromYear to toYear,
+     * streaming the years in order as described for the weekday count range.
+     */
+    public Stream<CommonHolidaysForYear> getCommonHolidays(int fromYear, int toYear, String countryCodeOne,
+                                                           String countryCodeTwo) {
+        log.info("Fetching common holidays for years: {}-{}, countryOne: {}, countryTwo: {}",
+                fromYear, toYear, countryCodeOne, countryCodeTwo);
+        validateYearRange(fromYear, toYear);
+        validateCountryCode(countryCodeOne);
+        validateCountryCode(countryCodeTwo);
+
+        return inYearOrder(fromYear, getHolidayIndexes(fromYear, toYear, List.of(countryCodeOne, countryCodeTwo)),
+                (year, holidays) -> new CommonHolidaysForYear(year, toCommonHolidaysResponse(
+                        year, countryCodeOne, countryCodeTwo, holidays.get(0), holidays.get(1)).getCommonHolidays()));
+    }
+
+    /**
+     * Counts the weekday holidays of every country, yielding each country as soon as its holidays are loaded
+     * rather than in request order. All countries are validated before the first one is yielded.
+     */
+    public Stream<CountryHolidayCount> streamWeekdayHolidaysCount(int year, List<String> countryCodes) {
+        log.info("Streaming weekday holidays count for year: {} and countries: {}", year, countryCodes);
+        validateYear(year);
+        validateCountryCodesNotEmpty(countryCodes);
+        validateCountryCodes(countryCodes);
+
+        List<CompletableFuture<HolidayIndex>> loads = fanOutExecutor.submitAll(countryCodes,
+                countryCode -> holidayRepository.getHolidayIndex(countryCode, year));
+        markIfStale(List.of(loads));
+        List<CompletableFuture<CountryHolidayCount>> counts = IntStream.range(0, loads.size())
+                .mapToObj(i -> loads.get(i).thenApply(holidays -> toCountryHolidayCount(countryCodes.get(i), holidays)))
+                .toList();
+        return FanOutExecutor.inCompletionOrder(counts).onClose(() -> FanOutExecutor.cancelAll(loads));
+    }
+
+    /**
+     * Counts the weekday holidays of every country for each year from fromYear to toYear,
+     * yielding each year as soon as all of its countries are loaded rather than in year order.
+     */
+    public Stream<WeekdayHolidaysForYear> streamWeekdayHolidaysCount(int fromYear, int toYear,
+                                                                    List<String> countryCodes) {
+        log.info("Streaming weekday holidays count for years: {}-{} and countries: {}", fromYear, toYear, countryCodes);
+        validateYearRange(fromYear, toYear);
+        validateCountryCodesNotEmpty(countryCodes);
+        validateCountryCodes(countryCodes);
+
+        return inCompletionOrder(fromYear, getHolidayIndexes(fromYear, toYear, countryCodes), (year, indexes) -> {
+            List<CountryHolidayCount> results = indexes.stream()
+                    .map(holidays -> toCountryHolidayCount(holidays.countryCode(), holidays))
+                    .toList();
+            return new WeekdayHolidaysForYear(year, toWeekdayHolidaysResponse(year, results, List.of()).countries());
+        });
+    }
+
+    /**
+     * Finds the common holidays between two countries for each year from fromYear to toYear,
+     * yielding each year as soon as both countries are loaded rather than in year order.
+     */
+    public Stream<CommonHolidaysForYear> streamCommonHolidays(int fromYear, int toYear, String countryCodeOne,
+                                                              String countryCodeTwo) {
+        log.info("Streaming common holidays for years: {}-{}, countryOne: {}, countryTwo: {}",
+                fromYear, toYear, countryCodeOne, countryCodeTwo);
+        validateYearRange(fromYear, toYear);
+        validateCountryCode(countryCodeOne);
+        validateCountryCode(countryCodeTwo);
+
+        return inCompletionOrder(fromYear, getHolidayIndexes(fromYear, toYear, List.of(countryCodeOne, countryCodeTwo)),
+                (year, holidays) -> new CommonHolidaysForYear(year, toCommonHolidaysResponse(
+                        year, countryCodeOne, countryCodeTwo, holidays.get(0), holidays.get(1)).getCommonHolidays()));
+    }
+
+    /**
+     * Builds the result of each year once all of its loads are done, yielding the years in order.
+     * The first year is built before the stream is returned, so a failing load is most likely reported
+     * as the error response of the request rather than after part of the response has been written.
+     * Closing the stream cancels the loads that have not started yet, e.g. when the client has gone away.
+     */
+    private static <R> Stream<R> inYearOrder(int fromYear, List<List<CompletableFuture<HolidayIndex>>> loadsPerYear,
+                                             BiFunction<Integer, List<HolidayIndex>, R> toResult) {
+        Runnable cancel = () -> loadsPerYear.forEach(FanOutExecutor::cancelAll);
+        R first;
+        try {
+            first = toResult.apply(fromYear, joinAll(loadsPerYear.getFirst()));
+        } catch (RuntimeException e) {
+            cancel.run();
+            throw e;
         }
+        markIfStale(loadsPerYear);
+        return Stream.concat(Stream.of(first), IntStream.range(1, loadsPerYear.size())
+                        .mapToObj(i -> toResult.apply(fromYear + i, joinAll(loadsPerYear.get(i)))))
+                .onClose(cancel);
+    }
 
-        List<CountryHolidayCount> results = new ArrayList<>();
-        List<String> invalidCountries = new ArrayList<>();
+    /**
+     * Builds the result of each year once all of its loads are done, yielding the years in the order they complete.
+     * Closing the stream cancels the loads that have not started yet.
+     */
+    private static <R> Stream<R> inCompletionOrder(int fromYear,
+                                                   List<List<CompletableFuture<HolidayIndex>>> loadsPerYear,
+                                                   BiFunction<Integer, List<HolidayIndex>, R> toResult) {
+        List<CompletableFuture<R>> years = new ArrayList<>(loadsPerYear.size());
+        for (int i = 0; i < loadsPerYear.size(); i++) {
+            int year = fromYear + i;
+            List<CompletableFuture<HolidayIndex>> loads = loadsPerYear.get(i);
+            years.add(CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                    .handle((done, e) -> toResult.apply(year, joinAll(loads))));
+        }
+        markIfStale(loadsPerYear);
+        return FanOutExecutor.inCompletionOrder(years).onClose(() -> loadsPerYear.forEach(FanOutExecutor::cancelAll));
+    }
 
-        for (String countryCode : countryCodes) {
-            try {
-                validateCountryCode(countryCode);
-                List<Holiday> holidays = getHolidaysForYear(countryCode, year);
+    /**
+     * Flags the request as served stale when any of the loads that are already done returned stale holidays.
+     * Streamed responses send their headers before the other loads are done, so only these can be flagged.
+     */
+    private static void markIfStale(List<List<CompletableFuture<HolidayIndex>>> loadsPerYear) {
+        StaleDataMarker.markIfStale(loadsPerYear.stream()
+                .flatMap(List::stream)
+                .filter(load -> load.isDone() && !load.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .toList());
+    }
+
+    /**
+     * Starts loading the holiday index of every country in every year of the range,
+     * returning the pending loads grouped per year and in request order within a year.
+     */
+    private List<List<CompletableFuture<HolidayIndex>>> getHolidayIndexes(int fromYear, int toYear,
+                                                                          List<String> countryCodes) {
+        List<CountryYear> entries = new ArrayList<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            for (String countryCode : countryCodes) {
+                entries.add(new CountryYear(countryCode, year));
+            }
+        }
 
-                long weekdayHolidays = holidays.stream()
-                        .filter(holiday -> !isWeekend(holiday.date()))
-                        .count();
+        List<CompletableFuture<HolidayIndex>> loads = fanOutExecutor.submitAll(entries,
+                entry -> holidayRepository.getHolidayIndex(entry.countryCode(), entry.year()));
+
+        List<List<CompletableFuture<HolidayIndex>>> loadsPerYear = new ArrayList<>();
+        for (int i = 0; i < loads.size(); i += countryCodes.size()) {
+            loadsPerYear.add(loads.subList(i, i + countryCodes.size()));
+        }
+        return loadsPerYear;
+    }
+
+    /**
+     * The cached index of every year of the range, or null when any of them is not cached.
+     */
+    private List<HolidayIndex> getCachedHolidayIndexes(String countryCode, int fromYear, int toYear) {
+        List<HolidayIndex> indexes = new ArrayList<>(toYear - fromYear + 1);
+        for (int year = fromYear; year <= toYear; year++) {
+            HolidayIndex index = holidayRepository.getCachedHolidayIndex(countryCode, year);
+            if (index == null) {
+                return null;
+            }
+            indexes.add(index);
+        }
+        return indexes;
+    }
 
-                results.add(new CountryHolidayCount(
-                        countryCode.toUpperCase(), (int) weekdayHolidays));
+    private static List<HolidayIndex> joinAll(List<CompletableFuture<HolidayIndex>> loads) {
+        List<HolidayIndex> indexes = new ArrayList<>(loads.size());
+        for (CompletableFuture<HolidayIndex> load : loads) {
+            try {
+                indexes.add(FanOutExecutor.join(load));
+            } catch (InvalidCountryException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
+            }
+        }
+        return indexes;
+    }
 
+    /**
+     * Validates every country code up front, failing with all invalid country codes at once.
+     */
+    private void validateCountryCodes(List<String> countryCodes) {
+        Set<String> availableCountries = holidayRepository.getAvailableCountries();
+        List<String> invalidCountries = new ArrayList<>();
+        for (String countryCode : countryCodes) {
+            try {
+                validateCountryCode(countryCode, availableCountries);
             } catch (InvalidCountryException e) {
                 invalidCountries.add(countryCode);
+            }
+        }
+        if (!invalidCountries.isEmpty()) {
+            throw invalidCountries(invalidCountries);
+        }
+    }
+
+    /**
+     * Loads the holiday index of every country in parallel, in request order,
+     * failing with all invalid country codes at once.
+     */
+    private List<HolidayIndex> getHolidayIndexes(int year, List<String> countryCodes) {
+        List<CompletableFuture<HolidayIndex>> loads = fanOutExecutor.submitAll(countryCodes, countryCode -> {
+            validateCountryCode(countryCode);
+            return holidayRepository.getHolidayIndex(countryCode, year);
+        });
+
+        List<HolidayIndex> indexes = new ArrayList<>(countryCodes.size());
+        List<String> invalidCountries = new ArrayList<>();
+        for (int i = 0; i < countryCodes.size(); i++) {
+            try {
+                indexes.add(FanOutExecutor.join(loads.get(i)));
+            } catch (InvalidCountryException e) {
+                invalidCountries.add(countryCodes.get(i));
+            } catch (UpstreamUnavailableException e) {
+                throw e;
             } catch (Exception e) {
                 throw new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
             }
         }
 
         if (!invalidCountries.isEmpty()) {
-            throw new InvalidCountryException(
-                    "Invalid country code(s): " + String.join(", ", invalidCountries) +
-                            ". Please use valid ISO 3166-1 alpha-2 country codes.");
+            throw invalidCountries(invalidCountries);
+        }
+        StaleDataMarker.markIfStale(indexes);
+        return indexes;
+    }
+
+    /**
+     * Loads the holidays of every entry concurrently and waits for all of them.
+     * A failed load is not cached, so the query that needs it runs into the error again and reports it.
+     */
+    private void preload(List<CountryYear> entries) {
+        List<CompletableFuture<HolidayIndex>> loads = fanOutExecutor.submitAll(entries,
+                entry -> holidayRepository.getHolidayIndex(entry.countryCode(), entry.year()));
+        CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+    }
+
+    private BatchResult runBatchQuery(BatchQuery query) {
+        try {
+            Object response = switch (query == null ? null : query.type()) {
+                case BATCH_LAST_THREE -> getLastThreeCelebratedHolidays(query.country());
+                case BATCH_WEEKDAY_COUNT -> getWeekdayHolidaysCount(requireBatchYear(query), query.countries());
+                case BATCH_COMMON -> getCommonHolidays(requireBatchYear(query), query.countryOne(), query.countryTwo());
+                case null, default -> throw invalidBatchQueryType(query);
+            };
+            return new BatchResult(HttpStatus.OK.value(), response);
+        } catch (RuntimeException e) {
+            return toBatchResult(e);
+        }
+    }
+
+    /**
+     * Loads one year at a time, starting with the current one, until count holidays are found.
+     */
+    private HolidayWalk walkHolidays(String countryCode, LocalDate currentDate, int count, boolean upcoming) {
+        List<HolidayDetails> holidays = new ArrayList<>(count);
+        List<HolidayIndex> indexes = new ArrayList<>();
+
+        for (int year : walkYears(currentDate.getYear(), count, upcoming)) {
+            HolidayIndex index = getHolidayIndex(countryCode, year);
+            indexes.add(index);
+            if (addHolidays(index, currentDate, count, upcoming, holidays)) {
+                break;
+            }
+        }
+
+        StaleDataMarker.markIfStale(indexes);
+        return new HolidayWalk(requireHolidays(countryCode, holidays, upcoming), indexes);
+    }
+
+    private HolidayIndex getHolidayIndex(String countryCode, int year) {
+        try {
+            return holidayRepository.getHolidayIndex(countryCode, year);
+        } catch (UpstreamUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new HolidayServiceException("Error fetching holiday data: " + e.getMessage());
+        }
+    }
+
+    private void validateCountryCode(String countryCode) {
+        validateCountryCode(countryCode, holidayRepository.getAvailableCountries());
+    }
+
+    // The helpers below hold the request validation and response building shared with ReactiveHolidayApiService.
+
+    /**
+     * The years to load, from the current year backward or forward, for count holidays.
+     * Every year NAGER covers has at least one holiday, so count years besides the current one are enough.
+     */
+    static int[] walkYears(int currentYear, int count, boolean upcoming) {
+        int step = upcoming ? 1 : -1;
+        return IntStream.iterate(currentYear, year -> year + step)
+                .limit(count + 1L)
+                .filter(HolidayApiService::validateCurrentYear)
+                .toArray();
+    }
+
+    /**
+     * Appends the holidays of one year that were celebrated before the current date, latest first,
+     * or that are upcoming from the current date on, earliest first, and tells whether count holidays are found.
+     */
+    static boolean addHolidays(HolidayIndex index, LocalDate currentDate, int count, boolean upcoming,
+                               List<HolidayDetails> holidays) {
+        // The rank of today splits the date-sorted holidays into the celebrated and the upcoming ones.
+        int split = currentDate.getYear() > index.year() ? index.size()
+                : currentDate.getYear() < index.year() ? 0
+                : index.rank(currentDate.getDayOfYear());
+
+        if (upcoming) {
+            for (int i = split; i < index.size() && holidays.size() < count; i++) {
+                holidays.add(new HolidayDetails(index.dateAt(i), index.nameAt(i)));
+            }
+        } else {
+            for (int i = split - 1; i >= 0 && holidays.size() < count; i--) {
+                holidays.add(new HolidayDetails(index.dateAt(i), index.nameAt(i)));
+            }
+        }
+        return holidays.size() == count;
+    }
+
+    static HolidayCheckResponse toHolidayCheckResponse(String countryCode, LocalDate date, HolidayType type,
+                                                       HolidayIndex holidays) {
+        int i = holidays.indexOf(date.getDayOfYear());
+        if (i < 0 || (type != null && !holidays.hasType(i, type))) {
+            return new HolidayCheckResponse(countryCode.toUpperCase(), date, false, null, null);
+        }
+        return new HolidayCheckResponse(countryCode.toUpperCase(), date, true, holidays.nameAt(i), holidays.localNameAt(i));
+    }
+
+    /**
+     * Counts the business days from one date to another using the holidays of every year in between, in order.
+     */
+    static BusinessDayCountResponse toBusinessDayCountResponse(String countryCode, LocalDate from, LocalDate to,
+                                                               List<HolidayIndex> indexes, Set<DayOfWeek> weekend) {
+        int count = 0;
+        for (HolidayIndex index : indexes) {
+            BusinessDays calendar = index.businessDays(weekend);
+            int first = index.year() == from.getYear() ? from.getDayOfYear() : 1;
+            int last = index.year() == to.getYear() ? to.getDayOfYear() : calendar.length();
+            count += calendar.count(first, last);
+        }
+        return new BusinessDayCountResponse(countryCode.toUpperCase(), from, to, count);
+    }
+
+    /**
+     * The distinct countries and years the queries of a batch need, in order of first use.
+     * Unknown countries and years out of range are left to fail in their own query.
+     * A lastThree query needs the current year here; the year before is added by batchPreviousYears
+     * once it is known whether the current year has three celebrated holidays.
+     */
+    static List<CountryYear> batchCountryYears(List<BatchQuery> queries, Set<String> availableCountries,
+                                               int currentYear) {
+        Set<CountryYear> entries = new LinkedHashSet<>();
+        for (BatchQuery query : queries) {
+            if (query == null || query.type() == null) {
+                continue;
+            }
+            List<String> countryCodes = switch (query.type()) {
+                case BATCH_LAST_THREE -> Collections.singletonList(query.country());
+                case BATCH_WEEKDAY_COUNT -> query.countries() == null ? List.of() : query.countries();
+                case BATCH_COMMON -> Arrays.asList(query.countryOne(), query.countryTwo());
+                default -> List.of();
+            };
+            int[] years = BATCH_LAST_THREE.equals(query.type()) ? new int[]{currentYear}
+                    : query.year() == null ? new int[0] : new int[]{query.year()};
+
+            for (String countryCode : countryCodes) {
+                if (countryCode == null || !availableCountries.contains(countryCode.toUpperCase())) {
+                    continue;
+                }
+                for (int year : years) {
+                    if (validateCurrentYear(year)) {
+                        entries.add(new CountryYear(countryCode.toUpperCase(), year));
+                    }
+                }
+            }
+        }
+        return List.copyOf(entries);
+    }
+
+    /**
+     * The previous years the lastThree queries of a batch need once their current year is loaded, i.e. those of
+     * the countries that celebrated fewer than three holidays so far this year, as the lastThree walk would load.
+     * Countries whose current year is not cached, e.g. because it failed to load, are left to their own query.
+     */
+    static List<CountryYear> batchPreviousYears(List<BatchQuery> queries, Function<String, HolidayIndex> currentYearIndex,
+                                                LocalDate currentDate) {
+        int previousYear = currentDate.getYear() - 1;
+        if (!validateCurrentYear(previousYear)) {
+            return List.of();
+        }
+        Set<CountryYear> entries = new LinkedHashSet<>();
+        for (BatchQuery query : queries) {
+            if (query == null || !BATCH_LAST_THREE.equals(query.type()) || query.country() == null) {
+                continue;
+            }
+            HolidayIndex index = currentYearIndex.apply(query.country());
+            if (index != null && index.rank(currentDate.getDayOfYear()) < 3) {
+                entries.add(new CountryYear(query.country().toUpperCase(), previousYear));
+            }
+        }
+        return List.copyOf(entries);
+    }
+
+    static BatchResult toBatchResult(Exception e) {
+        ResponseEntity<Map<String, Object>> error = GlobalExceptionHandler.toErrorResponse(e);
+        return new BatchResult(error.getStatusCode().value(), error.getBody());
+    }
+
+    static List<HolidayDetails> requireHolidays(String countryCode, List<HolidayDetails> holidays, boolean upcoming) {
+        if (holidays.isEmpty()) {
+            throw new DataNotFoundException(
+                    (upcoming ? "No upcoming" : "No celebrated") + " holidays found for country: " + countryCode);
+        }
+        return holidays;
+    }
+
+    static CountryHolidayCount toCountryHolidayCount(String countryCode, HolidayIndex holidays) {
+        return new CountryHolidayCount(countryCode.toUpperCase(), holidays.weekdayHolidayCount());
+    }
+
+    static WeekdayHolidaysResponse toWeekdayHolidaysResponse(int year, List<CountryHolidayCount> results,
+                                                             List<String> invalidCountries) {
+        if (!invalidCountries.isEmpty()) {
+            throw invalidCountries(invalidCountries);
         }
 
         if (results.isEmpty()) {
@@ -110,32 +693,23 @@ public class HolidayApiService {
                     "No valid holiday data found for any of the provided countries in year: " + year);
         }
 
-        results.sort((a, b) -> Integer.compare(b.weekdayHolidaysCount(), a.weekdayHolidaysCount()));
+        List<CountryHolidayCount> sorted = new ArrayList<>(results);
+        sorted.sort((a, b) -> Integer.compare(b.weekdayHolidaysCount(), a.weekdayHolidaysCount()));
 
-        return new WeekdayHolidaysResponse(results);
+        return new WeekdayHolidaysResponse(sorted);
     }
 
-    public CommonHolidaysResponse getCommonHolidays(int year, String countryCodeOne, String countryCodeTwo) {
-        log.info("Fetching common holidays for year: {}, countryOne: {}, countryTwo: {}", year, countryCodeOne, countryCodeTwo);
-        validateYear(year);
-        validateCountryCode(countryCodeOne);
-        validateCountryCode(countryCodeTwo);
-
-        List<Holiday> holidaysOne = getHolidaysForYear(countryCodeOne, year);
-        List<Holiday> holidaysTwo = getHolidaysForYear(countryCodeTwo, year);
+    static CommonHolidaysResponse toCommonHolidaysResponse(int year, String countryCodeOne, String countryCodeTwo,
+                                                           HolidayIndex holidaysOne, HolidayIndex holidaysTwo) {
+        long[] commonDays = holidaysOne.commonDays(holidaysTwo);
 
-        Map<LocalDate, Holiday> holidayMapOne = holidaysOne.stream()
-                .collect(Collectors.toMap(Holiday::date, h -> h, (existing, replacement) -> existing));
-
-        List<CommonHoliday> commonHolidays = holidaysTwo.stream()
-                .filter(h2 -> holidayMapOne.containsKey(h2.date()))
-                .map(h2 -> {
-                    Holiday h1 = holidayMapOne.get(h2.date());
-                    return new CommonHoliday(
-                            h2.date(), h1.localName(), h2.localName());
-                })
-                .sorted(Comparator.comparing(CommonHoliday::date))
-                .collect(Collectors.toList());
+        List<CommonHoliday> commonHolidays = new ArrayList<>();
+        for (int day = HolidayIndex.nextSetBit(commonDays, 1); day > 0; day = HolidayIndex.nextSetBit(commonDays, day + 1)) {
+            int one = holidaysOne.rank(day);
+            int two = holidaysTwo.rank(day);
+            commonHolidays.add(new CommonHoliday(
+                    holidaysOne.dateAt(one), holidaysOne.localNameAt(one), holidaysTwo.localNameAt(two)));
+        }
 
         if (commonHolidays.isEmpty()) {
             return CommonHolidaysResponse
@@ -157,41 +731,251 @@ public class HolidayApiService {
                 .build();
     }
 
-    @Cacheable(value = "holidays", key = "#countryCode + '_' + #year")
-    protected List<Holiday> getHolidaysForYear(String countryCode, int year) {
-        return holidayApiClient.fetchHolidaysForYear(countryCode, year);
+    static CommonHolidaysAcrossResponse toCommonHolidaysAcrossResponse(int year, List<HolidayIndex> indexes,
+                                                                       int minCountries) {
+        List<String> countries = indexes.stream().map(HolidayIndex::countryCode).toList();
+        long[] sharedDays = HolidayIndex.sharedDays(indexes, minCountries);
+
+        List<SharedHoliday> commonHolidays = new ArrayList<>();
+        for (int day = HolidayIndex.nextSetBit(sharedDays, 1); day > 0; day = HolidayIndex.nextSetBit(sharedDays, day + 1)) {
+            List<String> celebratingCountries = new ArrayList<>();
+            Map<String, String> localNames = new LinkedHashMap<>();
+            for (HolidayIndex index : indexes) {
+                if (index.isHoliday(day)) {
+                    celebratingCountries.add(index.countryCode());
+                    localNames.put(index.countryCode(), index.localNameAt(index.rank(day)));
+                }
+            }
+            commonHolidays.add(new SharedHoliday(LocalDate.ofYearDay(year, day), celebratingCountries, localNames));
+        }
+
+        String message = commonHolidays.isEmpty()
+                ? String.format("No holidays shared by at least %d of %s for year %d",
+                        minCountries, String.join(", ", countries), year)
+                : null;
+        return new CommonHolidaysAcrossResponse(year, countries, minCountries, commonHolidays, message);
     }
 
-    @Cacheable(value = "countries", key = "'available_countries'")
-    protected Set<String> getAvailableCountries() {
-        return holidayApiClient.fetchAvailableCountries();
+    /**
+     * Upper-cases the country codes and drops duplicates, keeping the request order.
+     */
+    static List<String> distinctCountryCodes(List<String> countryCodes) {
+        validateCountryCodesNotEmpty(countryCodes);
+        List<String> countries = countryCodes.stream()
+                .map(countryCode -> countryCode == null ? "" : countryCode.trim().toUpperCase())
+                .distinct()
+                .toList();
+        if (countries.size() < 2) {
+            throw new InvalidRequestException("At least two different country codes are required");
+        }
+        return countries;
     }
 
-    private void validateCountryCode(String countryCode) {
+    static int validateMinCountries(Integer minCountries, int countryCount) {
+        if (minCountries == null) {
+            return countryCount;
+        }
+        if (minCountries < 2 || minCountries > countryCount) {
+            throw new InvalidRequestException(
+                    "Invalid minCountries: " + minCountries + ". It must be between 2 and " + countryCount + ".");
+        }
+        return minCountries;
+    }
+
+    static InvalidCountryException invalidCountries(List<String> invalidCountries) {
+        return new InvalidCountryException(
+                "Invalid country code(s): " + String.join(", ", invalidCountries) +
+                        ". Please use valid ISO 3166-1 alpha-2 country codes.");
+    }
+
+    static void validateCountryCode(String countryCode, Set<String> availableCountries) {
         if (countryCode == null || countryCode.trim().isEmpty()) {
             throw new InvalidCountryException("Country code cannot be empty");
         }
 
-        Set<String> availableCountries = getAvailableCountries();
         if (!availableCountries.contains(countryCode.toUpperCase())) {
             throw new InvalidCountryException(
                     "Invalid country code: " + countryCode + ". Please use a valid ISO 3166-1 alpha-2 country code.");
         }
     }
 
-    private void validateYear(int year) {
+    static void validateCountryCodesNotEmpty(List<String> countryCodes) {
+        if (countryCodes == null || countryCodes.isEmpty()) {
+            throw new InvalidCountryException("Country codes list cannot be empty");
+        }
+    }
+
+    static void validateYear(int year) {
         if (year < START_YEAR || year > END_YEAR) {
             throw new InvalidYearException(
                     "Invalid year: " + year + ". Year must be between 1975 and 2075.");
         }
     }
 
-    private boolean validateCurrentYear(int year) {
+    static void validateYearRange(int fromYear, int toYear) {
+        validateYear(fromYear);
+        validateYear(toYear);
+        if (fromYear > toYear) {
+            throw new InvalidRequestException(
+                    "Invalid year range: " + fromYear + "-" + toYear + ". fromYear must not be after toYear.");
+        }
+    }
+
+    /**
+     * Parses a yyyy-MM-dd date by hand, as DateTimeFormatter allocates a parse context on every call.
+     */
+    static LocalDate parseDate(String date) {
+        if (date != null && date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            int year = parseDigits(date, 0, 4);
+            int month = parseDigits(date, 5, 7);
+            int day = parseDigits(date, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    // fall through to the error below
+                }
+            }
+        }
+        throw new InvalidRequestException("Invalid date: " + date + ". Date must be in the format yyyy-MM-dd.");
+    }
+
+    private static int parseDigits(String value, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    static HolidayType parseHolidayType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        HolidayType holidayType = HolidayType.fromName(type);
+        if (holidayType == null) {
+            throw new InvalidRequestException("Invalid holiday type: " + type + ". Type must be one of "
+                    + Arrays.stream(HolidayType.values()).map(HolidayType::nagerName).toList() + ".");
+        }
+        return holidayType;
+    }
+
+    static void validateDateRange(LocalDate from, LocalDate to) {
+        validateYearRange(from.getYear(), to.getYear());
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException(
+                    "Invalid date range: " + from + " - " + to + ". from must not be after to.");
+        }
+    }
+
+    static void validateBusinessDays(int days) {
+        if (days < -MAX_BUSINESS_DAYS || days > MAX_BUSINESS_DAYS) {
+            throw new InvalidRequestException("Invalid days: " + days + ". Days must be between "
+                    + -MAX_BUSINESS_DAYS + " and " + MAX_BUSINESS_DAYS + ".");
+        }
+    }
+
+    static void validateBatch(List<BatchQuery> queries) {
+        if (queries == null || queries.isEmpty() || queries.size() > MAX_BATCH_QUERIES) {
+            throw new InvalidRequestException("Invalid batch of " + (queries == null ? 0 : queries.size())
+                    + " queries. A batch must have between 1 and " + MAX_BATCH_QUERIES + " queries.");
+        }
+    }
+
+    static int requireBatchYear(BatchQuery query) {
+        if (query.year() == null) {
+            throw new InvalidRequestException("Missing year for " + query.type() + " query.");
+        }
+        return query.year();
+    }
+
+    static InvalidRequestException invalidBatchQueryType(BatchQuery query) {
+        return new InvalidRequestException("Invalid query type: " + (query == null ? null : query.type())
+                + ". Type must be one of " + List.of(BATCH_LAST_THREE, BATCH_WEEKDAY_COUNT, BATCH_COMMON) + ".");
+    }
+
+    static void validateHolidayCount(int count) {
+        if (count < 1 || count > MAX_HOLIDAY_COUNT) {
+            throw new InvalidRequestException(
+                    "Invalid count: " + count + ". Count must be between 1 and " + MAX_HOLIDAY_COUNT + ".");
+        }
+    }
+
+    static boolean validateCurrentYear(int year) {
         return year >= START_YEAR && year <= END_YEAR;
     }
 
-    private boolean isWeekend(LocalDate date) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    /**
+     * The holidays found by walking the years from the current date, and the indexes of the years that were loaded.
+     */
+    record HolidayWalk(List<HolidayDetails> holidays, List<HolidayIndex> indexes) {}
+
+    /**
+     * Counts business days from a date, forward or backward, one year's calendar at a time:
+     * the days left to count are taken from the rest of each year with its prefix sums until they fit in one.
+     */
+    static final class BusinessDayWalk {
+
+        private final int step;
+        private int remaining;
+        private int year;
+        private int fromDayOfYear;
+        private LocalDate businessDay;
+
+        BusinessDayWalk(LocalDate date, int days) {
+            this.step = days < 0 ? -1 : 1;
+            this.remaining = Math.abs(days);
+            this.year = date.getYear();
+            // The date itself is not counted.
+            this.fromDayOfYear = date.getDayOfYear() + step;
+            this.businessDay = days == 0 ? date : null;
+        }
+
+        boolean isDone() {
+            return businessDay != null;
+        }
+
+        /**
+         * The year whose calendar is needed next.
+         */
+        int year() {
+            return year;
+        }
+
+        LocalDate businessDay() {
+            return businessDay;
+        }
+
+        /**
+         * Counts the business days of the next year of the walk, and tells whether the business day was found in it.
+         */
+        boolean add(BusinessDays calendar) {
+            if (step > 0) {
+                int available = calendar.count(fromDayOfYear, calendar.length());
+                if (remaining <= available) {
+                    businessDay = calendar.dateOf(calendar.nthOnOrAfter(fromDayOfYear, remaining));
+                    return true;
+                }
+                remaining -= available;
+                year++;
+                fromDayOfYear = 1;
+            } else {
+                int available = calendar.count(1, fromDayOfYear);
+                if (remaining <= available) {
+                    businessDay = calendar.dateOf(calendar.nthOnOrBefore(fromDayOfYear, remaining));
+                    return true;
+                }
+                remaining -= available;
+                year--;
+                fromDayOfYear = Year.of(year).length();
+            }
+            return false;
+        }
     }
+
+    record CountryYear(String countryCode, int year) {}
 }
@@ -0,0 +1,101 @@
+package com.holiday.service;
+
+import com.holiday.index.HolidayIndex;
+import com.holiday.repository.HolidayRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Preloads the holiday cache for every available country across a window of years around the current year.
+ * Runs as an ApplicationRunner, so the readiness probe only reports UP once the cache is warm, and again on
+ * a schedule to reload the current and future years, whose cache entries expire, before users miss them.
+ * Failures are logged and never prevent the application from starting.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "holiday.warmup", name = "enabled", havingValue = "true")
+public class HolidayCacheWarmUp implements ApplicationRunner, DisposableBean {
+
+    private final HolidayRepository holidayRepository;
+    private final FanOutExecutor fanOutExecutor;
+    private final int yearsBefore;
+    private final int yearsAfter;
+
+    public HolidayCacheWarmUp(HolidayRepository holidayRepository,
+                              @Value("${holiday.warmup.years-before:2}") int yearsBefore,
+                              @Value("${holiday.warmup.years-after:2}") int yearsAfter,
+                              @Value("${holiday.warmup.max-concurrency:8}") int maxConcurrency) {
+        this.holidayRepository = holidayRepository;
+        this.fanOutExecutor = new FanOutExecutor(maxConcurrency);
+        this.yearsBefore = yearsBefore;
+        this.yearsAfter = yearsAfter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp(false);
+    }
+
+    @Scheduled(cron = "${holiday.warmup.cron:0 0 3 * * *}")
+    public void refresh() {
+        warmUp(true);
+    }
+
+    void warmUp(boolean reloadCurrentYears) {
+        long start = System.nanoTime();
+        Set<String> countries;
+        try {
+            countries = holidayRepository.getAvailableCountries();
+        } catch (Exception e) {
+            log.warn("Skipping holiday cache warm-up, available countries could not be fetched: {}", e.getMessage());
+            return;
+        }
+
+        int currentYear = Year.now().getValue();
+        List<CountryYear> entries = new ArrayList<>();
+        for (String countryCode : countries) {
+            for (int year = currentYear - yearsBefore; year <= currentYear + yearsAfter; year++) {
+                if (HolidayApiService.validateCurrentYear(year)) {
+                    entries.add(new CountryYear(countryCode, year));
+                }
+            }
+        }
+
+        List<CompletableFuture<HolidayIndex>> loads = fanOutExecutor.submitAll(entries, entry ->
+                reloadCurrentYears && entry.year() >= currentYear
+                        ? holidayRepository.refreshHolidayIndex(entry.countryCode(), entry.year())
+                        : holidayRepository.getHolidayIndex(entry.countryCode(), entry.year()));
+
+        int failed = 0;
+        for (int i = 0; i < loads.size(); i++) {
+            try {
+                FanOutExecutor.join(loads.get(i));
+            } catch (Exception e) {
+                failed++;
+                log.debug("Unable to warm up holidays for {}: {}", entries.get(i), e.getMessage());
+            }
+        }
+
+        log.info("Holiday cache warm-up finished: {} of {} country/year entries loaded in {} ms",
+                entries.size() - failed, entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void destroy() {
+        fanOutExecutor.destroy();
+    }
+
+    private record CountryYear(String countryCode, int year) {}
+}
@@ -0,0 +1,77 @@
+package com.holiday.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holiday.config.CacheConfig;
+import com.holiday.exception.HolidayServiceException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.LastThreeHolidaysResponse;
+import com.holiday.model.SerializedResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-country cache of the serialized /lastThree responses.
+ * The last three celebrated holidays only change once the country's next holiday has passed,
+ * so the response is serialized once and kept until the day after that holiday (or the new year),
+ * turning the endpoint into a cache lookup and a byte copy. Responses built from stale holidays are not cached.
+ */
+@Component
+public class LastThreeHolidaysCache {
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+
+    public LastThreeHolidaysCache(CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.cache = cacheManager.getCache(CacheConfig.LAST_THREE_CACHE);
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<byte[]> get(String countryCode, LocalDate currentDate) {
+        if (countryCode == null) {
+            return Optional.empty();
+        }
+        SerializedResponse response = cache.get(countryCode.toUpperCase(), SerializedResponse.class);
+        return response != null && currentDate.isBefore(response.validUntil())
+                ? Optional.of(response.body())
+                : Optional.empty();
+    }
+
+    /**
+     * Serializes the response built from the given holiday indexes, caching it unless any of them is stale.
+     */
+    public byte[] put(LastThreeHolidaysResponse response, List<HolidayIndex> indexes, LocalDate currentDate) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new HolidayServiceException("Error serializing holiday data: " + e.getMessage());
+        }
+
+        if (indexes.stream().noneMatch(HolidayIndex::isStale)) {
+            cache.put(response.country(), new SerializedResponse(body, validUntil(indexes, currentDate)));
+        }
+        return body;
+    }
+
+    /**
+     * The day after the next holiday on or after the current date, when that holiday counts as celebrated,
+     * or the first day of the next year when no holiday is left this year.
+     */
+    static LocalDate validUntil(List<HolidayIndex> indexes, LocalDate currentDate) {
+        for (HolidayIndex holidays : indexes) {
+            if (holidays.year() == currentDate.getYear()) {
+                int next = holidays.rank(currentDate.getDayOfYear());
+                if (next < holidays.size()) {
+                    return holidays.dateAt(next).plusDays(1);
+                }
+            }
+        }
+        return LocalDate.of(currentDate.getYear() + 1, 1, 1);
+    }
+}
@@ -0,0 +1,454 @@
+package com.holiday.service;
+
+import com.holiday.config.BusinessDayProperties;
+import com.holiday.exception.HolidayServiceException;
+import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.InvalidYearException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.index.HolidayType;
+import com.holiday.model.BatchQuery;
+import com.holiday.model.BatchResult;
+import com.holiday.model.BusinessDayCountResponse;
+import com.holiday.model.BusinessDayResponse;
+import com.holiday.model.CommonHolidaysAcrossResponse;
+import com.holiday.model.CommonHolidaysForYear;
+import com.holiday.model.CommonHolidaysResponse;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.CountryHolidaysResponse;
+import com.holiday.model.HolidayCheckResponse;
+import com.holiday.model.HolidayDetails;
+import com.holiday.model.LastThreeHolidaysResponse;
+import com.holiday.model.WeekdayHolidaysForYear;
+import com.holiday.model.WeekdayHolidaysResponse;
+import com.holiday.repository.HolidayRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.holiday.service.HolidayApiService.*;
+
+/**
+ * Non-blocking counterpart of the HolidayApiService used when the application runs on the reactive stack.
+ * It applies the same validation and produces the same responses, but composes the cache lookups
+ * and NAGER calls as Monos so no thread waits for the upstream API.
+ */
+@Service
+@Slf4j
+public class ReactiveHolidayApiService {
+
+    private final HolidayRepository holidayRepository;
+    private final LastThreeHolidaysCache lastThreeHolidaysCache;
+    private final BusinessDayProperties businessDayProperties;
+    private final int maxConcurrency;
+
+    public ReactiveHolidayApiService(HolidayRepository holidayRepository,
+                                     LastThreeHolidaysCache lastThreeHolidaysCache,
+                                     BusinessDayProperties businessDayProperties,
+                                     @Value("${holiday.fan-out.max-concurrency:16}") int maxConcurrency) {
+        this.holidayRepository = holidayRepository;
+        this.lastThreeHolidaysCache = lastThreeHolidaysCache;
+        this.businessDayProperties = businessDayProperties;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Mono<LastThreeHolidaysResponse> getLastThreeCelebratedHolidays(String countryCode) {
+        log.info("Fetching last three celebrated holidays for country: {}", countryCode);
+        LocalDate currentDate = LocalDate.now();
+
+        return validateCountryCode(countryCode)
+                .then(walkHolidays(countryCode, currentDate, 3, false))
+                .map(walk -> new LastThreeHolidaysResponse(countryCode.toUpperCase(), walk.holidays()));
+    }
+
+    /**
+     * The last three celebrated holidays serialized as JSON, served from the LastThreeHolidaysCache
+     * until the country's next holiday has passed.
+     */
+    public Mono<byte[]> getLastThreeCelebratedHolidaysJson(String countryCode) {
+        log.info("Fetching last three celebrated holidays for country: {}", countryCode);
+        LocalDate currentDate = LocalDate.now();
+
+        return Mono.justOrEmpty(lastThreeHolidaysCache.get(countryCode, currentDate))
+                .switchIfEmpty(Mono.defer(() -> validateCountryCode(countryCode)
+                        .then(walkHolidays(countryCode, currentDate, 3, false))
+                        .map(walk -> lastThreeHolidaysCache.put(
+                                new LastThreeHolidaysResponse(countryCode.toUpperCase(), walk.holidays()),
+                                walk.indexes(), currentDate))));
+    }
+
+    public Mono<CountryHolidaysResponse> getCelebratedHolidays(String countryCode, int count) {
+        log.info("Fetching last {} celebrated holidays for country: {}", count, countryCode);
+
+        return Mono.fromRunnable(() -> validateHolidayCount(count))
+                .then(validateCountryCode(countryCode))
+                .then(walkHolidays(countryCode, LocalDate.now(), count, false))
+                .map(walk -> new CountryHolidaysResponse(countryCode.toUpperCase(), walk.holidays()));
+    }
+
+    public Mono<CountryHolidaysResponse> getUpcomingHolidays(String countryCode, int count) {
+        log.info("Fetching next {} holidays for country: {}", count, countryCode);
+
+        return Mono.fromRunnable(() -> validateHolidayCount(count))
+                .then(validateCountryCode(countryCode))
+                .then(walkHolidays(countryCode, LocalDate.now(), count, true))
+                .map(walk -> new CountryHolidaysResponse(countryCode.toUpperCase(), walk.holidays()));
+    }
+
+    public Mono<HolidayCheckResponse> isHoliday(String countryCode, String date, String type) {
+        log.debug("Checking whether {} is a holiday in country: {}", date, countryCode);
+
+        return Mono.fromCallable(() -> parseDate(date))
+                .flatMap(day -> {
+                    HolidayType holidayType = parseHolidayType(type);
+                    Mono<HolidayIndex> holidays = Mono.defer(() ->
+                            getHolidayIndexAsync(countryCode, day.getYear()))
+                            .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                                    e -> new HolidayServiceException("Error fetching holiday data: " + e.getMessage()));
+
+                    // Only valid countries and years are ever cached, so a cached index needs no further validation.
+                    return Mono.justOrEmpty(holidayRepository.getCachedHolidayIndex(countryCode, day.getYear()))
+                            .switchIfEmpty(Mono.defer(() -> {
+                                validateYear(day.getYear());
+                                return validateCountryCode(countryCode).then(holidays);
+                            }))
+                            .transform(StaleDataMarker::markIfStale)
+                            .map(index -> toHolidayCheckResponse(countryCode, day, holidayType, index));
+                });
+    }
+
+    /**
+     * The business day that is days business days after the date, or before it when days is negative.
+     * The years are loaded one after the other, only as long as the days left to count do not fit in the last one.
+     */
+    public Mono<BusinessDayResponse> addBusinessDays(String countryCode, String date, int days) {
+        log.debug("Adding {} business days to {} for country: {}", days, date, countryCode);
+
+        return Mono.defer(() -> {
+            LocalDate day = parseDate(date);
+            validateBusinessDays(days);
+            validateYear(day.getYear());
+            BusinessDayWalk walk = new BusinessDayWalk(day, days);
+
+            return validateCountryCode(countryCode)
+                    .thenMany(Mono.defer(() -> {
+                                if (walk.isDone()) {
+                                    return Mono.<HolidayIndex>empty();
+                                }
+                                validateYear(walk.year());
+                                return getHolidayIndexAsync(countryCode, walk.year());
+                            })
+                            .onErrorMap(e -> !(e instanceof UpstreamUnavailableException || e instanceof InvalidYearException),
+                                    e -> new HolidayServiceException("Error fetching holiday data: " + e.getMessage()))
+                            .doOnNext(index -> walk.add(index.businessDays(businessDayProperties.weekendOf(countryCode))))
+                            .repeat(() -> !walk.isDone()))
+                    .then(Mono.fromCallable(() ->
+                            new BusinessDayResponse(countryCode.toUpperCase(), day, days, walk.businessDay())));
+        });
+    }
+
+    public Mono<BusinessDayResponse> getNextBusinessDay(String countryCode, String date) {
+        return addBusinessDays(countryCode, date, 1);
+    }
+
+    public Mono<BusinessDayCountResponse> countBusinessDays(String countryCode, String from, String to) {
+        log.debug("Counting business days from {} to {} for country: {}", from, to, countryCode);
+
+        return Mono.defer(() -> {
+            LocalDate fromDate = parseDate(from);
+            LocalDate toDate = parseDate(to);
+            validateDateRange(fromDate, toDate);
+
+            return validateCountryCode(countryCode)
+                    .thenMany(Flux.range(fromDate.getYear(), toDate.getYear() - fromDate.getYear() + 1)
+                            .flatMapSequential(year -> getHolidayIndexAsync(countryCode, year),
+                                    maxConcurrency)
+                            .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                                    e -> new HolidayServiceException("Error fetching holiday data: " + e.getMessage())))
+                    .collectList()
+                    .map(indexes -> toBusinessDayCountResponse(countryCode, fromDate, toDate, indexes,
+                            businessDayProperties.weekendOf(countryCode)));
+        });
+    }
+
+    /**
+     * Answers every query of a batch, in order, as the endpoint of its type would answer it.
+     * The holidays of each distinct country and year the batch needs are loaded once, concurrently,
+     * before the queries run, and a failing query only fails its own result. The year before is only loaded
+     * for the lastThree queries that need it once the current year is known.
+     */
+    public Mono<List<BatchResult>> getBatch(List<BatchQuery> queries) {
+        log.info("Running a batch of {} queries", queries == null ? 0 : queries.size());
+
+        LocalDate currentDate = LocalDate.now();
+
+        return Mono.fromRunnable(() -> validateBatch(queries))
+                .then(holidayRepository.getAvailableCountriesAsync())
+                .flatMap(availableCountries -> preload(
+                        batchCountryYears(queries, availableCountries, currentDate.getYear())))
+                .then(Mono.defer(() -> preload(batchPreviousYears(queries,
+                        countryCode -> holidayRepository.getCachedHolidayIndex(countryCode, currentDate.getYear()),
+                        currentDate))))
+                .thenMany(Flux.fromIterable(queries).concatMap(this::runBatchQuery))
+                .collectList();
+    }
+
+    /**
+     * Loads the holidays of every entry, maxConcurrency at a time, and completes once all of them are done.
+     * A failed load is not cached, so the query that needs it runs into the error again and reports it.
+     */
+    private Mono<Void> preload(List<CountryYear> entries) {
+        return Flux.fromIterable(entries)
+                .flatMap(entry -> getHolidayIndexAsync(entry.countryCode(), entry.year())
+                        .onErrorResume(e -> Mono.empty()), maxConcurrency)
+                .then();
+    }
+
+    public Mono<WeekdayHolidaysResponse> getWeekdayHolidaysCount(int year, List<String> countryCodes) {
+        log.info("Fetching weekday holidays count for year: {} and countries: {}", year, countryCodes);
+
+        return Mono.fromRunnable(() -> {
+                    validateYear(year);
+                    validateCountryCodesNotEmpty(countryCodes);
+                })
+                .thenMany(Flux.fromIterable(countryCodes)
+                        .flatMapSequential(countryCode -> loadHolidayIndex(year, countryCode), maxConcurrency))
+                .collectList()
+                .map(results -> toWeekdayHolidaysResponse(year, holidayIndexes(results).stream()
+                        .map(holidays -> toCountryHolidayCount(holidays.countryCode(), holidays))
+                        .toList(), List.of()));
+    }
+
+    public Mono<CommonHolidaysResponse> getCommonHolidays(int year, String countryCodeOne, String countryCodeTwo) {
+        log.info("Fetching common holidays for year: {}, countryOne: {}, countryTwo: {}", year, countryCodeOne, countryCodeTwo);
+
+        return Mono.fromRunnable(() -> validateYear(year))
+                .then(validateCountryCode(countryCodeOne))
+                .then(validateCountryCode(countryCodeTwo))
+                .then(Mono.defer(() -> Mono.zip(
+                        getHolidayIndexAsync(countryCodeOne, year),
+                        getHolidayIndexAsync(countryCodeTwo, year))))
+                .map(holidays -> toCommonHolidaysResponse(
+                        year, countryCodeOne, countryCodeTwo, holidays.getT1(), holidays.getT2()));
+    }
+
+    public Mono<CommonHolidaysAcrossResponse> getCommonHolidays(int year, List<String> countryCodes,
+                                                                Integer minCountries) {
+        log.info("Fetching common holidays for year: {}, countries: {}, minCountries: {}", year, countryCodes, minCountries);
+
+        return Mono.defer(() -> {
+            validateYear(year);
+            List<String> countries = distinctCountryCodes(countryCodes);
+            int minimum = validateMinCountries(minCountries, countries.size());
+
+            return Flux.fromIterable(countries)
+                    .flatMapSequential(countryCode -> loadHolidayIndex(year, countryCode), maxConcurrency)
+                    .collectList()
+                    .map(results -> toCommonHolidaysAcrossResponse(year, holidayIndexes(results), minimum));
+        });
+    }
+
+    public Flux<WeekdayHolidaysForYear> getWeekdayHolidaysCount(int fromYear, int toYear, List<String> countryCodes) {
+        log.info("Fetching weekday holidays count for years: {}-{} and countries: {}", fromYear, toYear, countryCodes);
+
+        return Mono.fromRunnable(() -> {
+                    validateYearRange(fromYear, toYear);
+                    validateCountryCodesNotEmpty(countryCodes);
+                })
+                .then(validateCountryCodes(countryCodes))
+                .thenMany(Flux.range(fromYear, toYear - fromYear + 1)
+                        .concatMapIterable(year -> countryCodes.stream()
+                                .map(countryCode -> new CountryYear(countryCode, year))
+                                .toList())
+                        .flatMapSequential(entry -> loadHolidayIndex(entry.year(), entry.countryCode()), maxConcurrency)
+                        .buffer(countryCodes.size())
+                        .index()
+                        .map(yearResults -> toWeekdayHolidaysForYear(
+                                fromYear + yearResults.getT1().intValue(), yearResults.getT2())));
+    }
+
+    public Flux<CommonHolidaysForYear> getCommonHolidays(int fromYear, int toYear, String countryCodeOne,
+                                                         String countryCodeTwo) {
+        log.info("Fetching common holidays for years: {}-{}, countryOne: {}, countryTwo: {}",
+                fromYear, toYear, countryCodeOne, countryCodeTwo);
+
+        return Mono.fromRunnable(() -> validateYearRange(fromYear, toYear))
+                .then(validateCountryCode(countryCodeOne))
+                .then(validateCountryCode(countryCodeTwo))
+                .thenMany(Flux.range(fromYear, toYear - fromYear + 1)
+                        .flatMapSequential(year -> Mono.zip(
+                                        getHolidayIndexAsync(countryCodeOne, year),
+                                        getHolidayIndexAsync(countryCodeTwo, year))
+                                .map(holidays -> new CommonHolidaysForYear(year, toCommonHolidaysResponse(
+                                        year, countryCodeOne, countryCodeTwo, holidays.getT1(), holidays.getT2())
+                                        .getCommonHolidays())), Math.max(1, maxConcurrency / 2)));
+    }
+
+    /**
+     * Counts the weekday holidays of every country, emitting each country as soon as its holidays are loaded
+     * rather than in request order. All countries are validated before the first one is emitted.
+     */
+    public Flux<CountryHolidayCount> streamWeekdayHolidaysCount(int year, List<String> countryCodes) {
+        log.info("Streaming weekday holidays count for year: {} and countries: {}", year, countryCodes);
+
+        return Mono.fromRunnable(() -> {
+                    validateYear(year);
+                    validateCountryCodesNotEmpty(countryCodes);
+                })
+                .then(validateCountryCodes(countryCodes))
+                .thenMany(Flux.fromIterable(countryCodes)
+                        .flatMap(countryCode -> getHolidayIndexAsync(countryCode, year)
+                                .map(holidays -> toCountryHolidayCount(countryCode, holidays)), maxConcurrency));
+    }
+
+    /**
+     * Counts the weekday holidays of every country for each year from fromYear to toYear,
+     * emitting each year as soon as all of its countries are loaded rather than in year order.
+     * Years are loaded maxConcurrency / countries at a time, and the countries of a year at most maxConcurrency
+     * at a time, so there are never more than maxConcurrency lookups in flight.
+     */
+    public Flux<WeekdayHolidaysForYear> streamWeekdayHolidaysCount(int fromYear, int toYear,
+                                                                  List<String> countryCodes) {
+        log.info("Streaming weekday holidays count for years: {}-{} and countries: {}", fromYear, toYear, countryCodes);
+
+        return Mono.fromRunnable(() -> {
+                    validateYearRange(fromYear, toYear);
+                    validateCountryCodesNotEmpty(countryCodes);
+                })
+                .then(validateCountryCodes(countryCodes))
+                .thenMany(Flux.range(fromYear, toYear - fromYear + 1)
+                        .flatMap(year -> Flux.fromIterable(countryCodes)
+                                .flatMapSequential(countryCode -> loadHolidayIndex(year, countryCode), maxConcurrency)
+                                .collectList()
+                                .map(results -> toWeekdayHolidaysForYear(year, results)),
+                                Math.max(1, maxConcurrency / countryCodes.size())));
+    }
+
+    /**
+     * Finds the common holidays between two countries for each year from fromYear to toYear,
+     * emitting each year as soon as both countries are loaded rather than in year order.
+     */
+    public Flux<CommonHolidaysForYear> streamCommonHolidays(int fromYear, int toYear, String countryCodeOne,
+                                                            String countryCodeTwo) {
+        log.info("Streaming common holidays for years: {}-{}, countryOne: {}, countryTwo: {}",
+                fromYear, toYear, countryCodeOne, countryCodeTwo);
+
+        return Mono.fromRunnable(() -> validateYearRange(fromYear, toYear))
+                .then(validateCountryCode(countryCodeOne))
+                .then(validateCountryCode(countryCodeTwo))
+                .thenMany(Flux.range(fromYear, toYear - fromYear + 1)
+                        .flatMap(year -> Mono.zip(
+                                        getHolidayIndexAsync(countryCodeOne, year),
+                                        getHolidayIndexAsync(countryCodeTwo, year))
+                                .map(holidays -> new CommonHolidaysForYear(year, toCommonHolidaysResponse(
+                                        year, countryCodeOne, countryCodeTwo, holidays.getT1(), holidays.getT2())
+                                        .getCommonHolidays())), Math.max(1, maxConcurrency / 2)));
+    }
+
+    /**
+     * Loads one year at a time, starting with the current one, until count holidays are found.
+     * The years are concatenated, so a year is only loaded once the previous one fell short.
+     */
+    private Mono<HolidayWalk> walkHolidays(String countryCode, LocalDate currentDate, int count, boolean upcoming) {
+        return Mono.defer(() -> {
+            List<HolidayDetails> holidays = new ArrayList<>(count);
+            List<HolidayIndex> indexes = new ArrayList<>();
+
+            return Flux.fromStream(IntStream.of(walkYears(currentDate.getYear(), count, upcoming)).boxed())
+                    .concatMap(year -> getHolidayIndexAsync(countryCode, year))
+                    .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                            e -> new HolidayServiceException("Error fetching holiday data: " + e.getMessage()))
+                    .doOnNext(index -> {
+                        indexes.add(index);
+                        addHolidays(index, currentDate, count, upcoming, holidays);
+                    })
+                    .takeUntil(index -> holidays.size() == count)
+                    .then(Mono.fromCallable(() ->
+                            new HolidayWalk(requireHolidays(countryCode, holidays, upcoming), indexes)));
+        });
+    }
+
+    private Mono<BatchResult> runBatchQuery(BatchQuery query) {
+        return Mono.defer(() -> switch (query == null ? null : query.type()) {
+                    case BATCH_LAST_THREE -> getLastThreeCelebratedHolidays(query.country());
+                    case BATCH_WEEKDAY_COUNT -> getWeekdayHolidaysCount(requireBatchYear(query), query.countries());
+                    case BATCH_COMMON -> getCommonHolidays(requireBatchYear(query), query.countryOne(),
+                            query.countryTwo());
+                    case null, default -> Mono.error(invalidBatchQueryType(query));
+                })
+                .map(response -> new BatchResult(HttpStatus.OK.value(), response))
+                .onErrorResume(Exception.class, e -> Mono.just(toBatchResult(e)));
+    }
+
+    /**
+     * The holidays of the country and year, flagging the request when they were served stale.
+     */
+    private Mono<HolidayIndex> getHolidayIndexAsync(String countryCode, int year) {
+        return StaleDataMarker.markIfStale(holidayRepository.getHolidayIndexAsync(countryCode, year));
+    }
+
+    private Mono<CountryResult> loadHolidayIndex(int year, String countryCode) {
+        return validateCountryCode(countryCode)
+                .then(Mono.defer(() -> getHolidayIndexAsync(countryCode, year)))
+                .map(holidays -> new CountryResult(countryCode, holidays))
+                .onErrorResume(InvalidCountryException.class, e -> Mono.just(new CountryResult(countryCode, null)))
+                .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                        e -> new HolidayServiceException("Error fetching holiday data: " + e.getMessage()));
+    }
+
+    private static WeekdayHolidaysForYear toWeekdayHolidaysForYear(int year, List<CountryResult> yearResults) {
+        List<CountryHolidayCount> results = holidayIndexes(yearResults).stream()
+                .map(holidays -> toCountryHolidayCount(holidays.countryCode(), holidays))
+                .toList();
+        return new WeekdayHolidaysForYear(year, toWeekdayHolidaysResponse(year, results, List.of()).countries());
+    }
+
+    private static List<HolidayIndex> holidayIndexes(List<CountryResult> results) {
+        List<HolidayIndex> indexes = new ArrayList<>(results.size());
+        List<String> invalidCountries = new ArrayList<>();
+        for (CountryResult result : results) {
+            if (result.holidays() != null) {
+                indexes.add(result.holidays());
+            } else {
+                invalidCountries.add(result.countryCode());
+            }
+        }
+        if (!invalidCountries.isEmpty()) {
+            throw invalidCountries(invalidCountries);
+        }
+        return indexes;
+    }
+
+    private Mono<Void> validateCountryCodes(List<String> countryCodes) {
+        return holidayRepository.getAvailableCountriesAsync()
+                .doOnNext(availableCountries -> {
+                    List<String> invalidCountries = countryCodes.stream()
+                            .filter(countryCode -> countryCode == null || countryCode.trim().isEmpty()
+                                    || !availableCountries.contains(countryCode.toUpperCase()))
+                            .toList();
+                    if (!invalidCountries.isEmpty()) {
+                        throw invalidCountries(invalidCountries);
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> validateCountryCode(String countryCode) {
+        return holidayRepository.getAvailableCountriesAsync()
+                .doOnNext(availableCountries -> HolidayApiService.validateCountryCode(countryCode, availableCountries))
+                .then();
+    }
+
+    /**
+     * The holidays of a single country, or no holidays when the country code is invalid.
+     */
+    private record CountryResult(String countryCode, HolidayIndex holidays) {}
+}
@@ -0,0 +1,57 @@
+package com.holiday.service;
+
+import com.holiday.index.HolidayIndex;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers on the current request whether any of the holidays it used were served stale,
+ * so the response can be flagged with the X-Holiday-Data-Stale header.
+ * On the servlet stack the flag is a request attribute; on the reactive stack it lives in the
+ * Reactor context of the request, where the StaleDataWebFilter puts it.
+ * Outside of a request, e.g. during the cache warm-up, marking does nothing.
+ */
+public final class StaleDataMarker {
+
+    public static final String HEADER = "X-Holiday-Data-Stale";
+    private static final String ATTRIBUTE = StaleDataMarker.class.getName() + ".stale";
+    private static final String CONTEXT_KEY = ATTRIBUTE;
+
+    private StaleDataMarker() {
+    }
+
+    public static void markIfStale(List<HolidayIndex> indexes) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && indexes.stream().anyMatch(HolidayIndex::isStale)) {
+            attributes.setAttribute(ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static boolean isMarked() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    /**
+     * The Reactor context holding the stale flag of a reactive request.
+     */
+    public static Context context(AtomicBoolean stale) {
+        return Context.of(CONTEXT_KEY, stale);
+    }
+
+    /**
+     * Flags the reactive request the index is loaded for when it was served stale.
+     */
+    public static Mono<HolidayIndex> markIfStale(Mono<HolidayIndex> index) {
+        return index.doOnEach(signal -> {
+            if (signal.isOnNext() && signal.get().isStale()) {
+                signal.getContextView().<AtomicBoolean>getOrEmpty(CONTEXT_KEY).ifPresent(stale -> stale.set(true));
+            }
+        });
+    }
+}
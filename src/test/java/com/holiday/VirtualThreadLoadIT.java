@@ -0,0 +1,145 @@
+package com.holiday;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test comparing the throughput of the servlet stack on platform threads and on virtual threads.
+ * A local NAGER stub answers every call after a fixed delay, and every request misses the cache,
+ * so each request holds its thread for the whole upstream round trip, including the cache load.
+ * The platform worker pool serves at most PLATFORM_THREADS such requests at a time. Virtual threads only
+ * beat it by a wide margin if none of them pins its carrier while it waits, since pinned virtual threads
+ * would be limited to the few carrier threads instead.
+ * The stub keeps idle connections open through the sun.net.httpserver.maxIdleConnections property,
+ * set for the test JVM in the pom.
+ * Run it with: mvn test -Dtest=VirtualThreadLoadIT
+ */
+@Slf4j
+public class VirtualThreadLoadIT {
+
+    private static final int REQUESTS = 240;
+    private static final int UPSTREAM_DELAY_MILLIS = 400;
+    private static final int PLATFORM_THREADS = 8;
+    private static final List<String> COUNTRIES =
+            IntStream.range(0, 8).mapToObj(i -> "A" + (char) ('A' + i)).toList();
+
+    private static HttpServer nagerStub;
+    private static ExecutorService stubExecutor;
+
+    @BeforeAll
+    public static void startNagerStub() throws IOException {
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        nagerStub = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        nagerStub.setExecutor(stubExecutor);
+        nagerStub.createContext("/api/v3/AvailableCountries", exchange -> respond(exchange, COUNTRIES.stream()
+                .map(code -> "{\"countryCode\":\"" + code + "\",\"name\":\"" + code + "\"}")
+                .collect(Collectors.joining(",", "[", "]"))));
+        nagerStub.createContext("/api/v3/PublicHolidays", exchange -> {
+            sleep(UPSTREAM_DELAY_MILLIS);
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            respond(exchange, "[{\"date\":\"" + path[4] + "-01-01\",\"localName\":\"New Year\",\"name\":\"New Year\","
+                    + "\"countryCode\":\"" + path[5] + "\",\"types\":[\"Public\"]}]");
+        });
+        nagerStub.start();
+    }
+
+    @AfterAll
+    public static void stopNagerStub() {
+        nagerStub.stop(0);
+        stubExecutor.close();
+    }
+
+    @Test
+    public void testVirtualThreadsThroughputOnBlockingUpstreamCalls() throws Exception {
+        double platformThroughput = measureThroughput(false);
+        double virtualThroughput = measureThroughput(true);
+
+        log.info("{} cache-missing requests, {} ms upstream latency: {} requests/s on {} platform threads, "
+                + "{} requests/s on virtual threads", REQUESTS, UPSTREAM_DELAY_MILLIS,
+                Math.round(platformThroughput), PLATFORM_THREADS, Math.round(virtualThroughput));
+
+        // The platform run takes at least REQUESTS / PLATFORM_THREADS upstream round trips (12 s),
+        // the virtual one is bound by a single round trip or by the CPU, not by threads, when none is pinned.
+        assertTrue(virtualThroughput > platformThroughput * 2,
+                "virtual threads should serve at least twice as many requests per second as the platform worker pool, "
+                        + "but served " + Math.round(virtualThroughput) + " against " + Math.round(platformThroughput));
+    }
+
+    private double measureThroughput(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HolidayApiApplication.class).run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--holiday.store.enabled=false",
+                        "--holiday.warmup.enabled=false",
+                        "--holiday.api.base-url=http://localhost:" + nagerStub.getAddress().getPort() + "/api/v3",
+                        // The load test measures our threads, not the size of the upstream connection pool.
+                        "--holiday.api.pool.max-connections=" + REQUESTS,
+                        "--resilience4j.ratelimiter.instances.nager.limit-for-period=" + REQUESTS * 10,
+                        "--resilience4j.bulkhead.instances.nager.max-concurrent-calls=" + REQUESTS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(stubExecutor).build();
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Future<Integer>> statuses = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                // Every request asks for a different country and year, so none is served from the cache.
+                URI uri = URI.create(baseUrl + "/api/v1/holidays/weekdayCount?year=" + (1975 + i / COUNTRIES.size())
+                        + "&countries=" + COUNTRIES.get(i % COUNTRIES.size()));
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .build();
+                statuses.add(callers.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.discarding())
+                        .statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, status.get());
+            }
+            return REQUESTS / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.holiday.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the HedgedRequests class.
+ * This class tests, in virtual time, when a hedge is sent and which outcome of the two calls is returned.
+ */
+public class HedgedRequestsTest {
+
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private HedgedRequests hedgedRequests() {
+        return new HedgedRequests(true, HEDGE_DELAY, Duration.ZERO, 0.95, meterRegistry);
+    }
+
+    // Answers the n-th call, counted from 1, with the n-th of the given outcomes.
+    private Supplier<Mono<String>> calls(List<Mono<String>> outcomes) {
+        return () -> outcomes.get(calls.incrementAndGet() - 1);
+    }
+
+    private double hedgedCount() {
+        return meterRegistry.get("holiday.upstream.hedged").counter().count();
+    }
+
+    @Test
+    public void testFastCall_isNotHedged() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofMillis(50)).thenReturn("primary")))))
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, hedgedCount());
+    }
+
+    @Test
+    public void testSlowCall_isHedgedAndTheFasterAnswerWins() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofSeconds(5)).thenReturn("primary"),
+                        Mono.delay(Duration.ofMillis(50)).thenReturn("hedge")))))
+                .thenAwait(HEDGE_DELAY.plusMillis(50))
+                .expectNext("hedge")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+        assertEquals(1, hedgedCount());
+    }
+
+    @Test
+    public void testFailingHedge_doesNotHideASucceedingPrimaryCall() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofMillis(300)).thenReturn("primary"),
+                        Mono.error(new IllegalStateException("hedge failed"))))))
+                .thenAwait(Duration.ofMillis(300))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testBothCallsFailing_returnsTheErrorOfThePrimaryCall() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofMillis(300)).then(Mono.error(new IllegalStateException("primary failed"))),
+                        Mono.error(new IllegalArgumentException("hedge failed"))))))
+                .thenAwait(Duration.ofMillis(300))
+                .expectErrorSatisfies(e -> assertEquals("primary failed", e.getMessage()))
+                .verify();
+    }
+
+    @Test
+    public void testPrimaryCallFailingBeforeTheHedgeDelay_failsWithoutAHedge() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofMillis(10)).then(Mono.error(new IllegalStateException("primary failed")))))))
+                .thenAwait(Duration.ofMillis(10))
+                .expectErrorMessage("primary failed")
+                .verify();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, hedgedCount());
+    }
+
+    @Test
+    public void testEmptyCalls_completeEmpty() {
+        StepVerifier.withVirtualTime(() -> hedgedRequests().hedge(calls(List.of(
+                        Mono.delay(Duration.ofMillis(300)).then(Mono.<String>empty()),
+                        Mono.<String>empty()))))
+                .thenAwait(Duration.ofMillis(300))
+                .verifyComplete();
+    }
+}
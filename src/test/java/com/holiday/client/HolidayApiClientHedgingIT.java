@@ -0,0 +1,120 @@
+package com.holiday.client;
+
+import com.holiday.config.HolidayApiClientConfig;
+import com.holiday.config.HolidayApiProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency test comparing the p99 of NAGER calls with and without hedged requests.
+ * A local NAGER stub answers one call in 25 slowly, so the p95 that sets the hedge delay stays fast
+ * while the p99 of plain calls is slow; hedging should bring the p99 down to about the hedge delay.
+ * Run it with: mvn test -Dtest=HolidayApiClientHedgingIT
+ */
+@Slf4j
+public class HolidayApiClientHedgingIT {
+
+    private static final int CALLS = 100;
+    private static final long SLOW_MILLIS = 300;
+
+    private static final AtomicInteger requests = new AtomicInteger();
+    private static HttpServer nagerStub;
+    private static ExecutorService stubExecutor;
+
+    @BeforeAll
+    public static void startNagerStub() throws IOException {
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        nagerStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        nagerStub.setExecutor(stubExecutor);
+        nagerStub.createContext("/api/v3/PublicHolidays", HolidayApiClientHedgingIT::respond);
+        nagerStub.start();
+    }
+
+    @AfterAll
+    public static void stopNagerStub() {
+        nagerStub.stop(0);
+        stubExecutor.close();
+    }
+
+    @Test
+    public void testHedgedRequestsCutTheP99Latency() {
+        long plainP99 = p99Millis(new HolidayApiProperties.Hedge(false, null, 0.95, Duration.ofMillis(50)));
+        long hedgedP99 = p99Millis(new HolidayApiProperties.Hedge(true, null, 0.95, Duration.ofMillis(50)));
+
+        log.info("p99 latency of {} NAGER calls with one in 25 taking {} ms: {} ms plain, {} ms hedged",
+                CALLS, SLOW_MILLIS, plainP99, hedgedP99);
+
+        assertTrue(plainP99 >= SLOW_MILLIS, "plain p99 " + plainP99 + " ms");
+        assertTrue(hedgedP99 < SLOW_MILLIS / 2, "hedged p99 " + hedgedP99 + " ms");
+    }
+
+    private static long p99Millis(HolidayApiProperties.Hedge hedge) {
+        requests.set(0);
+        HolidayApiProperties properties = new HolidayApiProperties(
+                "http://localhost:" + nagerStub.getAddress().getPort() + "/api/v3",
+                Duration.ofSeconds(1), Duration.ofSeconds(5), true, false,
+                new HolidayApiProperties.Pool(10, 100, 100, Duration.ofSeconds(5),
+                        Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ZERO),
+                hedge);
+        HolidayApiClientConfig config = new HolidayApiClientConfig();
+        ConnectionProvider connectionProvider = config.holidayApiConnectionProvider(properties);
+        try {
+            HolidayApiClient client = new HolidayApiClient(properties,
+                    config.holidayApiHttpClient(properties, connectionProvider), new SimpleMeterRegistry(),
+                    CircuitBreakerRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults(),
+                    BulkheadRegistry.ofDefaults(), RetryRegistry.ofDefaults());
+            long[] latencies = new long[CALLS];
+            for (int i = 0; i < latencies.length; i++) {
+                long start = System.nanoTime();
+                client.fetchHolidaysForYear("US", 2024);
+                latencies[i] = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            }
+            Arrays.sort(latencies);
+            return latencies[CALLS * 99 / 100 - 1];
+        } finally {
+            connectionProvider.dispose();
+        }
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        try {
+            Thread.sleep(request % 25 == 0 ? SLOW_MILLIS : 2);
+            byte[] body = "[{\"date\":\"2024-01-01\",\"localName\":\"New Year\",\"name\":\"New Year\",\"countryCode\":\"US\"}]"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client cancelled the call, the slower of two hedged requests
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.holiday.client;
+
+import com.holiday.config.HolidayApiClientConfig;
+import com.holiday.config.HolidayApiProperties;
+import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the retries and hedged requests of the HolidayApiClient.
+ * This class runs the client against a local NAGER stub that fails or delays chosen requests,
+ * to verify that transient failures are retried and that only slow calls are hedged.
+ * The latency gained by hedging is measured by HolidayApiClientHedgingIT.
+ */
+public class HolidayApiClientRetryAndHedgingTest {
+
+    // The stub answers a slow request long after the hedge is due and a fast one long before.
+    private static final int SLOW_MILLIS = 2000;
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(500);
+
+    private final HolidayApiClientConfig config = new HolidayApiClientConfig();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ConnectionProvider> connectionProviders = new ArrayList<>();
+
+    private HttpServer nagerStub;
+    private ExecutorService stubExecutor;
+    // Maps the 1-based number of a request to the status the stub answers it with
+    private volatile IntUnaryOperator statuses = request -> 200;
+    private volatile IntUnaryOperator delaysMillis = request -> 0;
+
+    @BeforeEach
+    public void startNagerStub() throws IOException {
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        nagerStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        nagerStub.setExecutor(stubExecutor);
+        nagerStub.createContext("/api/v3/PublicHolidays", this::respond);
+        nagerStub.start();
+    }
+
+    @AfterEach
+    public void stopNagerStub() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+        nagerStub.stop(0);
+        stubExecutor.close();
+    }
+
+    @Test
+    public void testRetriesTransientFailures() {
+        statuses = request -> request == 1 ? 503 : 200;
+        HolidayApiClient client = client(3, new HolidayApiProperties.Hedge(false, null, 0.95, Duration.ofMillis(50)));
+
+        assertEquals(1, client.fetchHolidaysForYear("US", 2024).size());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        statuses = request -> 503;
+        HolidayApiClient client = client(3, new HolidayApiProperties.Hedge(false, null, 0.95, Duration.ofMillis(50)));
+
+        assertThrows(UpstreamUnavailableException.class, () -> client.fetchHolidaysForYear("US", 2024));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testDoesNotRetryRejectedRequests() {
+        statuses = request -> 404;
+        HolidayApiClient client = client(3, new HolidayApiProperties.Hedge(false, null, 0.95, Duration.ofMillis(50)));
+
+        assertThrows(RuntimeException.class, () -> client.fetchHolidaysForYear("XX", 2024));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testSendsAHedgeWhenTheFirstCallIsSlow() {
+        delaysMillis = request -> request == 1 ? SLOW_MILLIS : 0;
+        HolidayApiClient client = client(1, new HolidayApiProperties.Hedge(true, HEDGE_DELAY, 0.95, HEDGE_DELAY));
+
+        assertEquals(1, client.fetchHolidaysForYear("US", 2024).size());
+        assertEquals(2, requests.get());
+        assertEquals(1, meterRegistry.get("holiday.upstream.hedged").counter().count());
+    }
+
+    @Test
+    public void testDoesNotHedgeFastCalls() {
+        HolidayApiClient client = client(1, new HolidayApiProperties.Hedge(true, HEDGE_DELAY, 0.95, HEDGE_DELAY));
+
+        for (int i = 0; i < 5; i++) {
+            client.fetchHolidaysForYear("US", 2024);
+        }
+        assertEquals(5, requests.get());
+        assertEquals(0, meterRegistry.get("holiday.upstream.hedged").counter().count());
+    }
+
+    private HolidayApiClient client(int maxAttempts, HolidayApiProperties.Hedge hedge) {
+        HolidayApiProperties properties = new HolidayApiProperties(
+                "http://localhost:" + nagerStub.getAddress().getPort() + "/api/v3",
+                Duration.ofSeconds(1), Duration.ofSeconds(5), true, false,
+                new HolidayApiProperties.Pool(10, 100, 100, Duration.ofSeconds(5),
+                        Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ZERO),
+                hedge);
+        ConnectionProvider connectionProvider = config.holidayApiConnectionProvider(properties);
+        connectionProviders.add(connectionProvider);
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(10), 2, 0.5))
+                .retryExceptions(UpstreamUnavailableException.class)
+                .ignoreExceptions(InvalidCountryException.class)
+                .build();
+        return new HolidayApiClient(properties, config.holidayApiHttpClient(properties, connectionProvider),
+                meterRegistry, CircuitBreakerRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), RetryRegistry.of(retryConfig));
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        try {
+            Thread.sleep(delaysMillis.applyAsInt(request));
+            int status = statuses.applyAsInt(request);
+            byte[] body = status == 200
+                    ? "[{\"date\":\"2024-01-01\",\"localName\":\"New Year\",\"name\":\"New Year\",\"countryCode\":\"US\"}]"
+                            .getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client cancelled the call, e.g. the slower of two hedged requests
+        } finally {
+            exchange.close();
+        }
+    }
+}
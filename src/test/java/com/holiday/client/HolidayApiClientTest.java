@@ -2,13 +2,26 @@ package com.holiday.client;
 
 import com.holiday.exception.DataNotFoundException;
 import com.holiday.exception.HolidayServiceException;
+import com.holiday.exception.UpstreamUnavailableException;
 import com.holiday.model.Country;
 import com.holiday.model.Holiday;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
@@ -23,6 +36,9 @@ import static org.mockito.Mockito.*;
  */
 public class HolidayApiClientTest {
 
+    private static final String NEW_YEAR_JSON = """
+            [{"date":"2024-01-01","localName":"New Year","name":"New Year","countryCode":"US","types":["Public"]}]""";
+
     private WebClient mockWebClient;
     private WebClient.RequestHeadersUriSpec mockUriSpec;
     private WebClient.RequestHeadersSpec mockHeadersSpec;
@@ -36,41 +52,67 @@ public class HolidayApiClientTest {
         mockUriSpec = mock(WebClient.RequestHeadersUriSpec.class);
         mockHeadersSpec = mock(WebClient.RequestHeadersSpec.class);
         mockResponseSpec = mock(WebClient.ResponseSpec.class);
+        when(mockHeadersSpec.attribute(anyString(), any())).thenReturn(mockHeadersSpec);
 
         holidayApiClient = new HolidayApiClient(mockWebClient);
     }
 
+    private static Flux<DataBuffer> json(String json) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     public void fetchHolidaysForYear_success() {
-        Holiday[] mockHolidays = {
-                new Holiday(LocalDate.of(2024, 1, 1), "New Year", "New Year", "US", null, null, List.of("Public"))
-        };
-
         when(mockWebClient.get()).thenReturn(mockUriSpec);
         when(mockUriSpec.uri("/PublicHolidays/{year}/{countryCode}", 2024, "US")).thenReturn(mockHeadersSpec);
         when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
         when(mockResponseSpec.onStatus(any(), any())).thenReturn(mockResponseSpec);
-        when(mockResponseSpec.bodyToMono(Holiday[].class)).thenReturn(Mono.just(mockHolidays));
+        when(mockResponseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json(NEW_YEAR_JSON));
 
         List<Holiday> result = holidayApiClient.fetchHolidaysForYear("US", 2024);
         assertEquals(1, result.size());
         assertEquals("US", result.getFirst().countryCode());
+        assertEquals(LocalDate.of(2024, 1, 1), result.getFirst().date());
+        assertEquals(List.of("Public"), result.getFirst().types());
     }
 
     @Test
     public void fetchHolidaysForYear_throws_NoDataFoundException() {
-        Holiday[] emptyArray = new Holiday[0];
-
         when(mockWebClient.get()).thenReturn(mockUriSpec);
         when(mockUriSpec.uri("/PublicHolidays/{year}/{countryCode}", 2024, "XX")).thenReturn(mockHeadersSpec);
         when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
         when(mockResponseSpec.onStatus(any(), any())).thenReturn(mockResponseSpec);
-        when(mockResponseSpec.bodyToMono(Holiday[].class)).thenReturn(Mono.just(emptyArray));
+        when(mockResponseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json("[]"));
 
         assertThrows(DataNotFoundException.class, () ->
                 holidayApiClient.fetchHolidaysForYear("XX", 2024));
     }
 
+    @Test
+    public void fetchHolidaysForYearAsync_success() {
+        when(mockWebClient.get()).thenReturn(mockUriSpec);
+        when(mockUriSpec.uri("/PublicHolidays/{year}/{countryCode}", 2024, "US")).thenReturn(mockHeadersSpec);
+        when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.onStatus(any(), any())).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json(NEW_YEAR_JSON));
+
+        StepVerifier.create(holidayApiClient.fetchHolidaysForYearAsync("US", 2024))
+                .assertNext(result -> assertEquals("US", result.getFirst().countryCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void fetchAvailableCountriesAsync_throws_HolidayServiceException() {
+        when(mockWebClient.get()).thenReturn(mockUriSpec);
+        when(mockUriSpec.uri("/AvailableCountries")).thenReturn(mockHeadersSpec);
+        when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.bodyToMono(Country[].class)).thenReturn(Mono.error(new RuntimeException("API error")));
+
+        StepVerifier.create(holidayApiClient.fetchAvailableCountriesAsync())
+                .expectError(HolidayServiceException.class)
+                .verify();
+    }
+
     @Test
     public void fetchAvailableCountries_success() {
         Country[] countries = {
@@ -96,4 +138,51 @@ public class HolidayApiClientTest {
 
         assertThrows(HolidayServiceException.class, () -> holidayApiClient.fetchAvailableCountries());
     }
+
+    @Test
+    public void fetchHolidaysForYear_connectionErrors_openTheCircuitBreaker() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("nager", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .recordExceptions(UpstreamUnavailableException.class)
+                .build());
+        holidayApiClient = new HolidayApiClient(mockWebClient, circuitBreaker);
+
+        when(mockWebClient.get()).thenReturn(mockUriSpec);
+        when(mockUriSpec.uri("/PublicHolidays/{year}/{countryCode}", 2024, "US")).thenReturn(mockHeadersSpec);
+        when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.onStatus(any(), any())).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.bodyToFlux(DataBuffer.class)).thenReturn(Flux.error(new WebClientRequestException(
+                new IOException("Connection refused"), HttpMethod.GET, URI.create("http://localhost"), HttpHeaders.EMPTY)));
+
+        assertThrows(UpstreamUnavailableException.class, () -> holidayApiClient.fetchHolidaysForYear("US", 2024));
+        assertThrows(UpstreamUnavailableException.class, () -> holidayApiClient.fetchHolidaysForYear("US", 2024));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> holidayApiClient.fetchHolidaysForYear("US", 2024));
+        assertEquals("NAGER API unavailable: circuit breaker is open", e.getMessage());
+        verify(mockWebClient, times(2)).get();
+    }
+
+    @Test
+    public void fetchHolidaysForYear_missingData_doesNotOpenTheCircuitBreaker() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("nager", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .recordExceptions(UpstreamUnavailableException.class)
+                .build());
+        holidayApiClient = new HolidayApiClient(mockWebClient, circuitBreaker);
+
+        when(mockWebClient.get()).thenReturn(mockUriSpec);
+        when(mockUriSpec.uri("/PublicHolidays/{year}/{countryCode}", 2024, "XX")).thenReturn(mockHeadersSpec);
+        when(mockHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.onStatus(any(), any())).thenReturn(mockResponseSpec);
+        when(mockResponseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json("[]"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(DataNotFoundException.class, () -> holidayApiClient.fetchHolidaysForYear("XX", 2024));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
 }
@@ -0,0 +1,100 @@
+package com.holiday.client;
+
+import com.holiday.index.HolidayType;
+import com.holiday.model.Holiday;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for the NagerHolidayParser class.
+ * This class tests that the holidays are decoded from a NAGER response split into arbitrary
+ * buffers, that unused fields are skipped, and that invalid responses are rejected.
+ */
+public class NagerHolidayParserTest {
+
+    private static final String HOLIDAYS_JSON = """
+            [
+              {"date":"2024-01-01","localName":"Nieuwjaarsdag","name":"New Year's Day","countryCode":"NL",
+               "fixed":true,"global":true,"counties":null,"launchYear":1967,"types":["Public"]},
+              {"date":"2024-04-27","localName":"Koningsdag","name":"King's Day","countryCode":"NL",
+               "fixed":false,"global":true,"counties":["NL-NH","NL-ZH"],"launchYear":null,"types":["Public","Bank"],
+               "extra":{"nested":[1,{"name":"ignored"}],"date":"1900-01-01"}}
+            ]""";
+
+    private static Flux<DataBuffer> buffers(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.fromStream(IntStream.iterate(0, offset -> offset < bytes.length, offset -> offset + chunkSize)
+                .mapToObj(offset -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize)))));
+    }
+
+    @Test
+    public void testParsesOnlyTheNeededFieldsWhateverTheBufferBoundaries() {
+        for (int chunkSize : new int[] {1, 7, 64, 4096}) {
+            List<Holiday> holidays = NagerHolidayParser.parse(buffers(HOLIDAYS_JSON, chunkSize)).block();
+
+            assertEquals(2, holidays.size(), "chunk size " + chunkSize);
+            assertEquals(new Holiday(LocalDate.of(2024, 1, 1), "Nieuwjaarsdag", "New Year's Day", "NL",
+                    null, null, List.of("Public")), holidays.get(0));
+            assertEquals(new Holiday(LocalDate.of(2024, 4, 27), "Koningsdag", "King's Day", "NL",
+                    null, null, List.of("Public", "Bank")), holidays.get(1));
+        }
+    }
+
+    @Test
+    public void testSharesKnownTypeStrings() {
+        List<Holiday> holidays = NagerHolidayParser.parse(buffers(HOLIDAYS_JSON, 5)).block();
+
+        assertSame(holidays.get(0).types().getFirst(), holidays.get(1).types().getFirst());
+        assertSame(HolidayType.PUBLIC.nagerName(), holidays.get(0).types().getFirst());
+    }
+
+    @Test
+    public void testParsesAnEmptyResponse() {
+        assertEquals(List.of(), NagerHolidayParser.parse(buffers("[]", 1)).block());
+        assertEquals(List.of(), NagerHolidayParser.parse(Flux.empty()).block());
+    }
+
+    @Test
+    public void testParsesHolidaysWithMissingFields() {
+        Holiday holiday = NagerHolidayParser.parse(buffers("[{\"date\":\"2024-12-25\"}]", 3)).block().getFirst();
+
+        assertEquals(LocalDate.of(2024, 12, 25), holiday.date());
+        assertNull(holiday.name());
+        assertNull(holiday.types());
+    }
+
+    @Test
+    public void testRejectsInvalidResponses() {
+        StepVerifier.create(NagerHolidayParser.parse(buffers("{\"message\":\"error\"}", 4)))
+                .expectError(DecodingException.class)
+                .verify();
+        StepVerifier.create(NagerHolidayParser.parse(buffers(HOLIDAYS_JSON.substring(0, 100), 16)))
+                .expectError(DecodingException.class)
+                .verify();
+        StepVerifier.create(NagerHolidayParser.parse(buffers("[{\"date\":\"2024-13-01\"}]", 16)))
+                .expectError()
+                .verify();
+    }
+
+    @Test
+    public void testParseDate() {
+        char[] chars = "x2024-02-29y".toCharArray();
+
+        assertEquals(LocalDate.of(2024, 2, 29), NagerHolidayParser.parseDate(chars, 1, 10));
+    }
+}
@@ -0,0 +1,96 @@
+package com.holiday.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the UpstreamMetricsFilter class.
+ * This class tests that NAGER calls are timed with their operation, country, status and outcome, including cancelled calls.
+ */
+public class UpstreamMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamMetricsFilter filter = new UpstreamMetricsFilter(meterRegistry);
+
+    private static ClientRequest holidaysRequest() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/PublicHolidays/2024/US"))
+                .attribute(UpstreamMetricsFilter.OPERATION_ATTRIBUTE, "holidays")
+                .attribute(UpstreamMetricsFilter.COUNTRY_ATTRIBUTE, "US")
+                .build();
+    }
+
+    @Test
+    public void testTimesResponsesByStatusAndOutcome() {
+        StepVerifier.create(filter.filter(holidaysRequest(),
+                        request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        Timer timer = meterRegistry.find("holiday.upstream.requests")
+                .tags("operation", "holidays", "country", "US", "status", "404", "outcome", "CLIENT_ERROR")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void testTimesConnectionErrors() {
+        ClientRequest countriesRequest = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/AvailableCountries"))
+                .attribute(UpstreamMetricsFilter.OPERATION_ATTRIBUTE, "countries")
+                .build();
+
+        StepVerifier.create(filter.filter(countriesRequest, request -> Mono.error(new IOException("Connection refused"))))
+                .expectError(IOException.class)
+                .verify();
+
+        Timer timer = meterRegistry.find("holiday.upstream.requests")
+                .tags("operation", "countries", "country", "none", "status", "IO_ERROR", "outcome", "UNKNOWN")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void testTimesCancelledCalls() {
+        StepVerifier.create(filter.filter(holidaysRequest(), request -> Mono.never()))
+                .thenCancel()
+                .verify();
+
+        Timer timer = meterRegistry.find("holiday.upstream.requests")
+                .tags("operation", "holidays", "country", "US", "status", "CANCELLED", "outcome", "CANCELLED")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void testPublishesABoundedHistogram() {
+        PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        StepVerifier.create(new UpstreamMetricsFilter(prometheusRegistry).filter(holidaysRequest(),
+                        request -> Mono.just(ClientResponse.create(HttpStatus.OK).build())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // An unbounded timer histogram publishes 69 buckets per series.
+        long buckets = prometheusRegistry.scrape().lines()
+                .filter(line -> line.startsWith("holiday_upstream_requests_seconds_bucket{"))
+                .count();
+        assertTrue(buckets > 0 && buckets < 50, buckets + " buckets");
+    }
+}
@@ -0,0 +1,215 @@
+package com.holiday.client;
+
+import com.holiday.exception.UpstreamThrottledException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the UpstreamThrottleFilter class.
+ * This class tests that NAGER calls are rate limited and bulkheaded until their body was read, that the
+ * rate backs off once per period on 429 and 5xx responses and honors Retry-After, and that waits and
+ * rejections are published as metrics.
+ */
+public class UpstreamThrottleFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientRequest request =
+            ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/PublicHolidays/2024/US")).build();
+
+    private static RateLimiter rateLimiter(int limitForPeriod, Duration period, Duration timeout) {
+        return RateLimiter.of("nager", RateLimiterConfig.custom()
+                .limitForPeriod(limitForPeriod)
+                .limitRefreshPeriod(period)
+                .timeoutDuration(timeout)
+                .build());
+    }
+
+    private static Bulkhead bulkhead(int maxConcurrentCalls) {
+        return Bulkhead.of("nager", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    private UpstreamThrottleFilter filter(RateLimiter rateLimiter, Bulkhead bulkhead) {
+        return new UpstreamThrottleFilter(rateLimiter, bulkhead, meterRegistry, Clock.systemUTC());
+    }
+
+    private static Mono<ClientResponse> respond(HttpStatus status) {
+        return Mono.just(ClientResponse.create(status).build());
+    }
+
+    @Test
+    public void testRejectsCallsOverTheRateLimit() {
+        UpstreamThrottleFilter filter = filter(rateLimiter(1, Duration.ofMinutes(1), Duration.ZERO), bulkhead(10));
+
+        StepVerifier.create(filter.filter(request, r -> respond(HttpStatus.OK))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(filter.filter(request, r -> respond(HttpStatus.OK)))
+                .expectError(UpstreamThrottledException.class)
+                .verify();
+
+        assertEquals(1, meterRegistry.counter("holiday.upstream.throttle.rejected", "reason", "rate_limiter").count());
+        assertEquals(2, meterRegistry.find("holiday.upstream.throttle.wait").timer().count());
+    }
+
+    @Test
+    public void testRejectsCallsOverTheBulkheadAndReleasesSlots() {
+        Bulkhead bulkhead = bulkhead(1);
+        UpstreamThrottleFilter filter = filter(rateLimiter(100, Duration.ofSeconds(1), Duration.ZERO), bulkhead);
+        Sinks.One<ClientResponse> slowResponse = Sinks.one();
+
+        StepVerifier.create(filter.filter(request, r -> slowResponse.asMono()))
+                .then(() -> StepVerifier.create(filter.filter(request, r -> respond(HttpStatus.OK)))
+                        .expectError(UpstreamThrottledException.class)
+                        .verify())
+                .then(() -> slowResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).build()))
+                .consumeNextWith(response -> response.releaseBody().block())
+                .verifyComplete();
+
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(1, meterRegistry.counter("holiday.upstream.throttle.rejected", "reason", "bulkhead").count());
+    }
+
+    @Test
+    public void testHoldsTheBulkheadSlotUntilTheBodyWasRead() {
+        Bulkhead bulkhead = bulkhead(1);
+        UpstreamThrottleFilter filter = filter(rateLimiter(100, Duration.ofSeconds(1), Duration.ZERO), bulkhead);
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+
+        ClientResponse response = filter.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .body(body.asFlux())
+                        .build()))
+                .block();
+        assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls());
+
+        StepVerifier.create(response.bodyToMono(String.class))
+                .then(() -> {
+                    body.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap("[]".getBytes(StandardCharsets.UTF_8)));
+                    assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls());
+                    body.tryEmitComplete();
+                })
+                .expectNext("[]")
+                .verifyComplete();
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    public void testReleasesTheBulkheadSlotWhenTheBodyIsCancelled() {
+        Bulkhead bulkhead = bulkhead(1);
+        UpstreamThrottleFilter filter = filter(rateLimiter(100, Duration.ofSeconds(1), Duration.ZERO), bulkhead);
+
+        ClientResponse response = filter.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .body(Flux.never())
+                        .build()))
+                .block();
+        StepVerifier.create(response.bodyToMono(String.class))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    public void testHalvesTheRateOnThrottlingAndServerErrorsAtMostOncePerPeriodAndRecoversOnSuccess() {
+        MutableClock clock = new MutableClock();
+        UpstreamThrottleFilter filter = new UpstreamThrottleFilter(rateLimiter(8, Duration.ofSeconds(1), Duration.ZERO),
+                bulkhead(10), meterRegistry, clock);
+
+        filter.adapt(429, HttpHeaders.EMPTY);
+        assertEquals(4, filter.limitForPeriod());
+        filter.adapt(503, HttpHeaders.EMPTY);
+        assertEquals(4, filter.limitForPeriod());
+        clock.advance(Duration.ofSeconds(1));
+        filter.adapt(503, HttpHeaders.EMPTY);
+        assertEquals(2, filter.limitForPeriod());
+
+        for (int i = 0; i < 10; i++) {
+            filter.adapt(200, HttpHeaders.EMPTY);
+        }
+        assertEquals(8, filter.limitForPeriod());
+        assertEquals(8, meterRegistry.find("holiday.upstream.throttle.limit").gauge().value());
+    }
+
+    @Test
+    public void testHonorsRetryAfter() {
+        UpstreamThrottleFilter filter = filter(rateLimiter(100, Duration.ofSeconds(1), Duration.ofSeconds(2)), bulkhead(10));
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "1");
+
+        StepVerifier.create(filter.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                        .headers(headers -> headers.addAll(retryAfter))
+                        .build())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        long start = System.nanoTime();
+        StepVerifier.create(filter.filter(request, r -> respond(HttpStatus.OK))).expectNextCount(1).verifyComplete();
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(waited.compareTo(Duration.ofMillis(800)) > 0, "waited " + waited);
+    }
+
+    @Test
+    public void testRejectsCallsWhenRetryAfterExceedsTheTimeout() {
+        UpstreamThrottleFilter filter = filter(rateLimiter(100, Duration.ofSeconds(1), Duration.ofSeconds(1)), bulkhead(10));
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "120");
+        filter.adapt(503, retryAfter);
+
+        StepVerifier.create(filter.filter(request, r -> respond(HttpStatus.OK)))
+                .expectError(UpstreamThrottledException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, meterRegistry.counter("holiday.upstream.throttle.rejected", "reason", "retry_after").count());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-06-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.holiday.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.Holiday;
+import com.holiday.model.SerializedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the CacheConfig class.
+ * This class tests the eviction, expiry and statistics settings of the Caffeine caches.
+ */
+public class CacheConfigTest {
+
+    private static HolidayIndex holidays(int year, int count) {
+        return HolidayIndex.of("US", year, IntStream.range(0, count)
+                .mapToObj(i -> new Holiday(LocalDate.of(year, 1, 1).plusDays(i), "Holiday", "Holiday", "US",
+                        null, null, List.of("Public")))
+                .toList());
+    }
+
+    @Test
+    public void testHolidaysCacheIsBoundedByWeight() {
+        HolidayCacheProperties.CacheSpec spec =
+                new HolidayCacheProperties.CacheSpec(1000, 20L, Duration.ofHours(1), null, null);
+        Cache<Object, Object> cache = CacheConfig.buildCache(spec).build();
+
+        cache.put("US_2022", holidays(2022, 10));
+        cache.put("US_2023", holidays(2023, 10));
+        cache.put("US_2024", holidays(2024, 10));
+        cache.cleanUp();
+
+        assertTrue(cache.policy().eviction().orElseThrow().weightedSize().orElseThrow() <= 20);
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testCacheRecordsHitAndMissStats() {
+        HolidayCacheProperties.CacheSpec spec =
+                new HolidayCacheProperties.CacheSpec(10, null, Duration.ofDays(1), null, null);
+        Cache<Object, Object> cache = CacheConfig.buildCache(spec).build();
+
+        cache.get("available_countries", key -> List.of("US"));
+        cache.get("available_countries", key -> List.of("US"));
+
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().loadCount());
+    }
+
+    @Test
+    public void testPastYearsAreKeptLongerThanCurrentYear() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC);
+        CacheConfig.HolidayYearExpiry expiry =
+                new CacheConfig.HolidayYearExpiry(Duration.ofHours(12), Duration.ofDays(30), Duration.ofMinutes(1), clock);
+
+        assertEquals(Duration.ofDays(30).toNanos(), expiry.expireAfterCreate("US_2024", holidays(2024, 1), 0));
+        assertEquals(Duration.ofHours(12).toNanos(), expiry.expireAfterCreate("US_2025", holidays(2025, 1), 0));
+        assertEquals(Duration.ofHours(12).toNanos(), expiry.expireAfterCreate("US_2026", holidays(2026, 1), 0));
+    }
+
+    @Test
+    public void testStaleEntriesExpireQuickly() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC);
+        CacheConfig.HolidayYearExpiry expiry =
+                new CacheConfig.HolidayYearExpiry(Duration.ofHours(12), Duration.ofDays(30), Duration.ofMinutes(1), clock);
+
+        assertEquals(Duration.ofMinutes(1).toNanos(),
+                expiry.expireAfterCreate("US_2024", holidays(2024, 1).asStale(), 0));
+        assertEquals(Duration.ofMinutes(1).toNanos(),
+                expiry.expireAfterCreate("US_2025", holidays(2025, 1).asStale(), 0));
+    }
+
+    @Test
+    public void testSerializedResponsesExpireWhenTheyBecomeInvalid() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-01T18:00:00Z"), ZoneOffset.UTC);
+        CacheConfig.ValidUntilExpiry expiry = new CacheConfig.ValidUntilExpiry(Duration.ofHours(12), clock);
+
+        assertEquals(Duration.ofHours(6).toNanos(), expiry.expireAfterCreate("US",
+                new SerializedResponse(new byte[0], LocalDate.of(2025, 6, 2)), 0));
+        assertEquals(Duration.ofHours(12).toNanos(), expiry.expireAfterCreate("US",
+                new SerializedResponse(new byte[0], LocalDate.of(2025, 7, 4)), 0));
+        assertEquals(0, expiry.expireAfterCreate("US",
+                new SerializedResponse(new byte[0], LocalDate.of(2025, 6, 1)), 0));
+    }
+}
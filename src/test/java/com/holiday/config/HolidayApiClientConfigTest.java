@@ -0,0 +1,182 @@
+package com.holiday.config;
+
+import com.holiday.client.HolidayApiClient;
+import com.holiday.exception.UpstreamThrottledException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.model.Holiday;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HolidayApiClientConfig class.
+ * This class runs the HolidayApiClient against a local NAGER stub to verify that the
+ * response timeout, the connection pool limits and gzip compression are applied,
+ * and that rate-limited responses are reported as throttled.
+ */
+public class HolidayApiClientConfigTest {
+
+    private final HolidayApiClientConfig config = new HolidayApiClientConfig();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Queue<String> acceptEncodings = new ConcurrentLinkedQueue<>();
+
+    private HttpServer nagerStub;
+    private ExecutorService stubExecutor;
+    private ConnectionProvider connectionProvider;
+    private volatile long upstreamDelayMillis;
+
+    @BeforeEach
+    public void startNagerStub() throws IOException {
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        nagerStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        nagerStub.setExecutor(stubExecutor);
+        nagerStub.createContext("/api/v3/PublicHolidays", this::respondWithHolidays);
+        nagerStub.createContext("/api/v3/AvailableCountries", exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "30");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        nagerStub.start();
+    }
+
+    @AfterEach
+    public void stopNagerStub() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        nagerStub.stop(0);
+        stubExecutor.close();
+    }
+
+    @Test
+    public void testResponseTimeoutFailsSlowCalls() {
+        upstreamDelayMillis = 2000;
+        HolidayApiClient client = client(pool(2, 10, Duration.ofSeconds(2)), Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(UpstreamUnavailableException.class, () -> client.fetchHolidaysForYear("US", 2024));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "timed out after " + elapsed);
+    }
+
+    @Test
+    public void testMaxConnectionsBoundsTheRequestsInFlight() {
+        upstreamDelayMillis = 200;
+        HolidayApiClient client = client(pool(2, 10, Duration.ofSeconds(5)), Duration.ofSeconds(5));
+
+        List<List<Holiday>> responses = Flux.range(2020, 6)
+                .flatMap(year -> client.fetchHolidaysForYearAsync("US", year))
+                .collectList()
+                .block();
+
+        assertEquals(6, responses.size());
+        assertEquals(2, maxInFlight.get());
+        assertTrue(acceptEncodings.stream().allMatch(encoding -> encoding.contains("gzip")));
+    }
+
+    @Test
+    public void testPendingAcquireMaxCountRejectsExcessRequests() {
+        upstreamDelayMillis = 500;
+        HolidayApiClient client = client(pool(1, 1, Duration.ofSeconds(5)), Duration.ofSeconds(5));
+
+        List<Boolean> outcomes = Flux.range(2020, 3)
+                .flatMap(year -> client.fetchHolidaysForYearAsync("US", year)
+                        .map(holidays -> true)
+                        .onErrorResume(e -> Mono.just(false)))
+                .collectList()
+                .block();
+
+        assertEquals(2, outcomes.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    public void testPendingAcquireTimeoutFailsRequestsWaitingForAConnection() {
+        upstreamDelayMillis = 1000;
+        HolidayApiClient client = client(pool(1, 10, Duration.ofMillis(100)), Duration.ofSeconds(5));
+
+        List<Boolean> outcomes = Flux.range(2020, 2)
+                .flatMap(year -> client.fetchHolidaysForYearAsync("US", year)
+                        .map(holidays -> true)
+                        .onErrorResume(e -> Mono.just(false)))
+                .collectList()
+                .block();
+
+        assertEquals(List.of(false, true), outcomes);
+    }
+
+    @Test
+    public void testRateLimitedResponsesAreReportedAsThrottled() {
+        HolidayApiClient client = client(pool(2, 10, Duration.ofSeconds(2)), Duration.ofSeconds(5));
+
+        assertThrows(UpstreamThrottledException.class, client::fetchAvailableCountries);
+    }
+
+    private HolidayApiProperties.Pool pool(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout) {
+        return new HolidayApiProperties.Pool(maxConnections, 100, pendingAcquireMaxCount, pendingAcquireTimeout,
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    private HolidayApiClient client(HolidayApiProperties.Pool pool, Duration responseTimeout) {
+        HolidayApiProperties properties = new HolidayApiProperties(
+                "http://localhost:" + nagerStub.getAddress().getPort() + "/api/v3",
+                Duration.ofSeconds(1), responseTimeout, true, false, pool,
+                new HolidayApiProperties.Hedge(false, null, 0.95, Duration.ofMillis(50)));
+        connectionProvider = config.holidayApiConnectionProvider(properties);
+        return new HolidayApiClient(properties, config.holidayApiHttpClient(properties, connectionProvider),
+                new SimpleMeterRegistry(), CircuitBreakerRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()));
+    }
+
+    private void respondWithHolidays(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            acceptEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            Thread.sleep(upstreamDelayMillis);
+            String year = exchange.getRequestURI().getPath().split("/")[4];
+            byte[] body = ("[{\"date\":\"" + year + "-01-01\",\"localName\":\"New Year\",\"name\":\"New Year\","
+                    + "\"countryCode\":\"US\",\"types\":[\"Public\"]}]").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client gave up on the call
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -1,21 +1,36 @@
 package com.holiday.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.holiday.exception.InvalidRequestException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.index.HolidayIndex;
 import com.holiday.model.*;
 import com.holiday.service.HolidayApiService;
+import com.holiday.service.StaleDataMarker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -23,13 +38,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * This class tests the endpoints for retrieving last three holidays, weekday holidays count,
  * and common holidays between two countries.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "holiday.warmup.enabled=false")
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 public class HolidayApiControllerIT {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private HolidayApiService holidayApiService;
 
@@ -45,7 +64,8 @@ public class HolidayApiControllerIT {
                 )
         );
 
-        when(holidayApiService.getLastThreeCelebratedHolidays(countryCode)).thenReturn(response);
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson(countryCode))
+                .thenReturn(objectMapper.writeValueAsBytes(response));
 
         mockMvc.perform(get("/api/v1/holidays/lastThree")
                         .header("Authorization", "Bearer holiday-api-token")
@@ -56,6 +76,86 @@ public class HolidayApiControllerIT {
                 .andExpect(jsonPath("$.holidays[0].name", is("Labor Day")));
     }
 
+    @Test
+    public void testGetCelebratedHolidays_defaultsToThree() throws Exception {
+        when(holidayApiService.getCelebratedHolidays("NL", 3)).thenReturn(new CountryHolidaysResponse("NL", List.of(
+                new HolidayDetails(LocalDate.of(2024, 12, 26), "Boxing Day"),
+                new HolidayDetails(LocalDate.of(2024, 12, 25), "Christmas Day"),
+                new HolidayDetails(LocalDate.of(2024, 5, 5), "Liberation Day"))));
+
+        mockMvc.perform(get("/api/v1/holidays/last")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "NL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.country", is("NL")))
+                .andExpect(jsonPath("$.holidays", hasSize(3)))
+                .andExpect(jsonPath("$.holidays[0].date", is("2024-12-26")));
+    }
+
+    @Test
+    public void testGetUpcomingHolidays_invalidCount() throws Exception {
+        when(holidayApiService.getUpcomingHolidays("NL", 0))
+                .thenThrow(new InvalidRequestException("Invalid count: 0. Count must be between 1 and 50."));
+
+        mockMvc.perform(get("/api/v1/holidays/next")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "NL")
+                        .param("count", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid Request")));
+    }
+
+    @Test
+    public void testIsHoliday() throws Exception {
+        when(holidayApiService.isHoliday("US", "2024-07-04", null)).thenReturn(new HolidayCheckResponse(
+                "US", LocalDate.of(2024, 7, 4), true, "Independence Day", "Independence Day"));
+
+        mockMvc.perform(get("/api/v1/holidays/isHoliday")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "US")
+                        .param("date", "2024-07-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date", is("2024-07-04")))
+                .andExpect(jsonPath("$.holiday", is(true)))
+                .andExpect(jsonPath("$.name", is("Independence Day")));
+    }
+
+    @Test
+    public void testGetBatch() throws Exception {
+        List<BatchQuery> queries = List.of(
+                new BatchQuery("weekdayCount", null, 2024, List.of("US"), null, null),
+                new BatchQuery("lastThree", "XX", null, null, null, null));
+        when(holidayApiService.getBatch(queries)).thenReturn(List.of(
+                new BatchResult(200, new WeekdayHolidaysResponse(List.of(new CountryHolidayCount("US", 10)))),
+                new BatchResult(400, Map.of("error", "Invalid Country"))));
+
+        mockMvc.perform(post("/api/v1/holidays/batch")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(queries)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].body.countries[0].countryCode", is("US")))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].body.error", is("Invalid Country")));
+    }
+
+    @Test
+    public void testCountBusinessDays() throws Exception {
+        when(holidayApiService.countBusinessDays("NL", "2024-12-23", "2025-01-03")).thenReturn(
+                new BusinessDayCountResponse("NL", LocalDate.of(2024, 12, 23), LocalDate.of(2025, 1, 3), 7));
+
+        mockMvc.perform(get("/api/v1/holidays/businessDays/count")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "NL")
+                        .param("from", "2024-12-23")
+                        .param("to", "2025-01-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from", is("2024-12-23")))
+                .andExpect(jsonPath("$.businessDays", is(7)));
+    }
+
     @Test
     public void testGetWeekdayHolidaysCount() throws Exception {
         int year = 2024;
@@ -128,4 +228,237 @@ public class HolidayApiControllerIT {
                 .andExpect(jsonPath("$.commonHolidays", hasSize(0)))
                 .andExpect(jsonPath("$.message", containsString("No common holidays")));
     }
+
+    @Test
+    public void testGetCommonHolidaysAcross() throws Exception {
+        int year = 2024;
+        List<String> countries = List.of("NL", "DE", "BE");
+        CommonHolidaysAcrossResponse response = new CommonHolidaysAcrossResponse(year, countries, 2, List.of(
+                new SharedHoliday(LocalDate.of(2024, 12, 25), List.of("NL", "DE"),
+                        Map.of("NL", "Eerste Kerstdag", "DE", "Erster Weihnachtstag"))), null);
+
+        when(holidayApiService.getCommonHolidays(year, countries, 2)).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/holidays/commonAcross")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("year", String.valueOf(year))
+                        .param("countries", "NL", "DE", "BE")
+                        .param("minCountries", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.minCountries", is(2)))
+                .andExpect(jsonPath("$.commonHolidays[0].date", is("2024-12-25")))
+                .andExpect(jsonPath("$.commonHolidays[0].countries", contains("NL", "DE")))
+                .andExpect(jsonPath("$.commonHolidays[0].localNames.DE", is("Erster Weihnachtstag")))
+                .andExpect(jsonPath("$.message").doesNotExist());
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_streamsAJsonArray() throws Exception {
+        when(holidayApiService.getWeekdayHolidaysCount(2023, 2024, List.of("US", "NL"))).thenReturn(Stream.of(
+                new WeekdayHolidaysForYear(2023, List.of(new CountryHolidayCount("US", 10), new CountryHolidayCount("NL", 8))),
+                new WeekdayHolidaysForYear(2024, List.of(new CountryHolidayCount("NL", 9), new CountryHolidayCount("US", 9)))));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/weekdayCount/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("fromYear", "2023")
+                        .param("toYear", "2024")
+                        .param("countries", "US", "NL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].year", is(2023)))
+                .andExpect(jsonPath("$[1].countries[0].countryCode", is("NL")));
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_streamsNdjson() throws Exception {
+        when(holidayApiService.streamWeekdayHolidaysCount(2024, List.of("US", "NL"))).thenReturn(Stream.of(
+                new CountryHolidayCount("NL", 8),
+                new CountryHolidayCount("US", 10)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/weekdayCount")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("year", "2024")
+                        .param("countries", "US", "NL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"countryCode\":\"NL\",\"weekdayHolidaysCount\":8}\n"
+                        + "{\"countryCode\":\"US\",\"weekdayHolidaysCount\":10}\n"));
+    }
+
+    @Test
+    public void testGetCommonHolidaysForYears_streamsServerSentEvents() throws Exception {
+        when(holidayApiService.streamCommonHolidays(2023, 2024, "US", "NL")).thenReturn(Stream.of(
+                new CommonHolidaysForYear(2024, List.of()),
+                new CommonHolidaysForYear(2023, List.of())));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/common/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("fromYear", "2023")
+                        .param("toYear", "2024")
+                        .param("countryOne", "US")
+                        .param("countryTwo", "NL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("data:{\"year\":2024,\"commonHolidays\":[]}\n\n"
+                        + "data:{\"year\":2023,\"commonHolidays\":[]}\n\n"));
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_endsTheArrayWithTheErrorOfAFailedYear() throws Exception {
+        when(holidayApiService.getWeekdayHolidaysCount(2023, 2024, List.of("US"))).thenReturn(Stream.of(2023, 2024)
+                .map(year -> {
+                    if (year == 2024) {
+                        throw new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open");
+                    }
+                    return new WeekdayHolidaysForYear(year, List.of(new CountryHolidayCount("US", 10)));
+                }));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/weekdayCount/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("fromYear", "2023")
+                        .param("toYear", "2024")
+                        .param("countries", "US"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].year", is(2023)))
+                .andExpect(jsonPath("$[1]", allOf(aMapWithSize(5), hasKey("timestamp"))))
+                .andExpect(jsonPath("$[1].status", is(503)))
+                .andExpect(jsonPath("$[1].error", is("Service Unavailable")))
+                .andExpect(jsonPath("$[1].message", is("NAGER API unavailable: circuit breaker is open")))
+                .andExpect(jsonPath("$[1].description",
+                        is("The holiday data provider is currently unavailable, please try again later.")));
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCountForYears_flagsStaleData() throws Exception {
+        when(holidayApiService.streamWeekdayHolidaysCount(2023, 2024, List.of("US"))).thenAnswer(invocation -> {
+            StaleDataMarker.markIfStale(List.of(HolidayIndex.of("US", 2024, List.of()).asStale()));
+            return Stream.of(new WeekdayHolidaysForYear(2024, List.of(new CountryHolidayCount("US", 10))));
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/weekdayCount/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("fromYear", "2023")
+                        .param("toYear", "2024")
+                        .param("countries", "US"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(StaleDataMarker.HEADER, "true"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"year\":2024,\"countries\":[{\"countryCode\":\"US\",\"weekdayHolidaysCount\":10}]}\n"));
+    }
+
+    @Test
+    public void testGetCommonHolidaysForYears_endsServerSentEventsWithAnErrorEvent() throws Exception {
+        when(holidayApiService.streamCommonHolidays(2023, 2024, "US", "NL")).thenReturn(Stream.of(2024, 2023)
+                .map(year -> {
+                    if (year == 2023) {
+                        throw new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open");
+                    }
+                    return new CommonHolidaysForYear(year, List.of());
+                }));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/holidays/common/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("fromYear", "2023")
+                        .param("toYear", "2024")
+                        .param("countryOne", "US")
+                        .param("countryTwo", "NL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("data:{\"year\":2024,\"commonHolidays\":[]}\n\n"
+                        + "event:error\ndata:{")))
+                .andExpect(content().string(containsString("\"status\":503")))
+                .andExpect(content().string(endsWith("}\n\n")));
+    }
+
+    @Test
+    public void testGetCommonHolidaysForYears_invalidRange() throws Exception {
+        when(holidayApiService.getCommonHolidays(2025, 2024, "US", "NL"))
+                .thenThrow(new InvalidRequestException("Invalid year range: 2025-2024. fromYear must not be after toYear."));
+
+        mockMvc.perform(get("/api/v1/holidays/common/range")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("fromYear", "2025")
+                        .param("toYear", "2024")
+                        .param("countryOne", "US")
+                        .param("countryTwo", "NL"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid Request")));
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesEndpointLatencyAndCacheMetrics() throws Exception {
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson("NL"))
+                .thenReturn(objectMapper.writeValueAsBytes(new LastThreeHolidaysResponse("NL", List.of())));
+        mockMvc.perform(get("/api/v1/holidays/lastThree")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "NL"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{application=\"holiday-api\",error=\"none\",exception=\"none\","
+                                + "method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/holidays/lastThree\"")))
+                .andExpect(content().string(containsString("cache_gets_total{application=\"holiday-api\",cache=\"holidays\"")))
+                .andExpect(content().string(containsString("cache_gets_total{application=\"holiday-api\",cache=\"countries\"")));
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidays_flagsStaleData() throws Exception {
+        HolidayIndex stale = HolidayIndex.of("NL", 2024, List.of(new Holiday(
+                LocalDate.of(2024, 1, 1), "Nieuwjaarsdag", "New Year's Day", "NL", null, null, List.of("Public"))))
+                .asStale();
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson("NL")).thenAnswer(invocation -> {
+            StaleDataMarker.markIfStale(List.of(stale));
+            return objectMapper.writeValueAsBytes(
+                    new LastThreeHolidaysResponse("NL", List.of(new HolidayDetails(stale.dateAt(0), stale.nameAt(0)))));
+        });
+
+        mockMvc.perform(get("/api/v1/holidays/lastThree")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "NL"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StaleDataMarker.HEADER, "true"))
+                .andExpect(jsonPath("$.holidays", hasSize(1)));
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidays_upstreamUnavailable() throws Exception {
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson("US"))
+                .thenThrow(new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open"));
+
+        mockMvc.perform(get("/api/v1/holidays/lastThree")
+                        .header("Authorization", "Bearer holiday-api-token")
+                        .param("country", "US"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist(StaleDataMarker.HEADER))
+                .andExpect(jsonPath("$.error", is("Service Unavailable")));
+    }
 }
@@ -11,8 +11,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -34,17 +36,15 @@ public class HolidayApiControllerTest {
     @InjectMocks
     private HolidayApiController holidayApiController;
 
-    private LastThreeHolidaysResponse mockLastThree;
+    private byte[] mockLastThree;
     private WeekdayHolidaysResponse mockWeekdayResponse;
     private CommonHolidaysResponse mockCommonResponse;
 
     @BeforeEach
     public void setUp() {
-        mockLastThree = new LastThreeHolidaysResponse("US", List.of(
-                new HolidayDetails(LocalDate.of(2024, 12, 25), "Christmas"),
-                new HolidayDetails(LocalDate.of(2024, 11, 28), "Thanksgiving"),
-                new HolidayDetails(LocalDate.of(2024, 7, 4), "Independence Day")
-        ));
+        mockLastThree = ("{\"country\":\"US\",\"holidays\":[{\"date\":\"2024-12-25\",\"name\":\"Christmas\"},"
+                + "{\"date\":\"2024-11-28\",\"name\":\"Thanksgiving\"},"
+                + "{\"date\":\"2024-07-04\",\"name\":\"Independence Day\"}]}").getBytes(StandardCharsets.UTF_8);
 
         mockWeekdayResponse = new WeekdayHolidaysResponse(List.of(
                 new CountryHolidayCount("US", 10),
@@ -62,14 +62,51 @@ public class HolidayApiControllerTest {
 
     @Test
     public void testGetLastThreeCelebratedHolidaysSuccessFully() {
-        when(holidayApiService.getLastThreeCelebratedHolidays("US")).thenReturn(mockLastThree);
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson("US")).thenReturn(mockLastThree);
 
-        ResponseEntity<LastThreeHolidaysResponse> response =
+        ResponseEntity<byte[]> response =
                 holidayApiController.getLastThreeCelebratedHolidays("US");
 
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(mockLastThree, response.getBody());
-        verify(holidayApiService).getLastThreeCelebratedHolidays("US");
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(mockLastThree, response.getBody());
+        verify(holidayApiService).getLastThreeCelebratedHolidaysJson("US");
+    }
+
+    @Test
+    public void testGetUpcomingHolidaysSuccessFully() {
+        CountryHolidaysResponse upcoming = new CountryHolidaysResponse("US", List.of(
+                new HolidayDetails(LocalDate.of(2025, 1, 1), "New Year's Day")));
+        when(holidayApiService.getUpcomingHolidays("US", 1)).thenReturn(upcoming);
+
+        ResponseEntity<CountryHolidaysResponse> response = holidayApiController.getUpcomingHolidays("US", 1);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(upcoming, response.getBody());
+    }
+
+    @Test
+    public void testIsHolidaySuccessFully() {
+        HolidayCheckResponse check = new HolidayCheckResponse("US", LocalDate.of(2024, 7, 4), true,
+                "Independence Day", "Independence Day");
+        when(holidayApiService.isHoliday("US", "2024-07-04", null)).thenReturn(check);
+
+        ResponseEntity<HolidayCheckResponse> response = holidayApiController.isHoliday("US", "2024-07-04", null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(check, response.getBody());
+    }
+
+    @Test
+    public void testAddBusinessDaysSuccessFully() {
+        BusinessDayResponse businessDay = new BusinessDayResponse("NL", LocalDate.of(2024, 12, 24), 4,
+                LocalDate.of(2025, 1, 2));
+        when(holidayApiService.addBusinessDays("NL", "2024-12-24", 4)).thenReturn(businessDay);
+
+        ResponseEntity<BusinessDayResponse> response = holidayApiController.addBusinessDays("NL", "2024-12-24", 4);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(businessDay, response.getBody());
     }
 
     @Test
@@ -100,7 +137,7 @@ public class HolidayApiControllerTest {
 
     @Test
     public void testGetLastThreeCelebratedHolidaysWithInvalidCountry() {
-        when(holidayApiService.getLastThreeCelebratedHolidays("ZZ"))
+        when(holidayApiService.getLastThreeCelebratedHolidaysJson("ZZ"))
                 .thenThrow(new InvalidCountryException("Invalid country code"));
 
         InvalidCountryException ex = assertThrows(InvalidCountryException.class,
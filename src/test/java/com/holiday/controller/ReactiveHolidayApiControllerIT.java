@@ -0,0 +1,115 @@
+package com.holiday.controller;
+
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.WeekdayHolidaysResponse;
+import com.holiday.service.ReactiveHolidayApiService;
+import com.holiday.service.StaleDataMarker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for the ReactiveHolidayApiController.
+ * This class starts the application on the reactive stack, checks that it is served by Netty and tests token authentication
+ * and the weekday holidays count endpoint, as one document and streamed as NDJSON, flagged when its data is stale.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "holiday.warmup.enabled=false")
+@ActiveProfiles("reactive")
+public class ReactiveHolidayApiControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext applicationContext;
+
+    @MockitoBean
+    private ReactiveHolidayApiService holidayApiService;
+
+    @Test
+    public void testRunsOnNetty() {
+        assertInstanceOf(NettyWebServer.class, applicationContext.getWebServer());
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount() {
+        List<String> countries = List.of("US", "NL");
+        when(holidayApiService.getWeekdayHolidaysCount(2024, countries)).thenReturn(Mono.just(
+                new WeekdayHolidaysResponse(List.of(
+                        new CountryHolidayCount("US", 10),
+                        new CountryHolidayCount("NL", 8)))));
+
+        webTestClient.get()
+                .uri("/api/v1/holidays/weekdayCount?year=2024&countries=US,NL")
+                .header("Authorization", "Bearer holiday-api-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.countries.length()").isEqualTo(2)
+                .jsonPath("$.countries[0].countryCode").isEqualTo("US");
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCountAsNdjson() {
+        List<String> countries = List.of("US", "NL");
+        when(holidayApiService.streamWeekdayHolidaysCount(2024, countries)).thenReturn(Flux.just(
+                new CountryHolidayCount("NL", 8),
+                new CountryHolidayCount("US", 10)));
+
+        webTestClient.get()
+                .uri("/api/v1/holidays/weekdayCount?year=2024&countries=US,NL")
+                .header("Authorization", "Bearer holiday-api-token")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("{\"countryCode\":\"NL\",\"weekdayHolidaysCount\":8}\n"
+                        + "{\"countryCode\":\"US\",\"weekdayHolidaysCount\":10}\n");
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_flagsStaleData() {
+        List<String> countries = List.of("US");
+        when(holidayApiService.getWeekdayHolidaysCount(2023, countries)).thenReturn(
+                StaleDataMarker.markIfStale(Mono.just(HolidayIndex.of("US", 2023, List.of()).asStale()))
+                        .map(index -> new WeekdayHolidaysResponse(List.of(new CountryHolidayCount("US", 0)))));
+        when(holidayApiService.getWeekdayHolidaysCount(2024, countries)).thenReturn(
+                Mono.just(new WeekdayHolidaysResponse(List.of(new CountryHolidayCount("US", 10)))));
+
+        webTestClient.get()
+                .uri("/api/v1/holidays/weekdayCount?year=2023&countries=US")
+                .header("Authorization", "Bearer holiday-api-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(StaleDataMarker.HEADER, "true");
+        webTestClient.get()
+                .uri("/api/v1/holidays/weekdayCount?year=2024&countries=US")
+                .header("Authorization", "Bearer holiday-api-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(StaleDataMarker.HEADER);
+    }
+
+    @Test
+    public void testRequestWithoutTokenIsRejected() {
+        webTestClient.get()
+                .uri("/api/v1/holidays/lastThree?country=US")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
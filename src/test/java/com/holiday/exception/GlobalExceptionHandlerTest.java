@@ -0,0 +1,47 @@
+package com.holiday.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the GlobalExceptionHandler class.
+ * This class tests that errors reported inside a larger response get the same status and body
+ * as the @ExceptionHandler method that handles them for a whole request.
+ */
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    public void testToErrorResponse_usesTheMostSpecificHandler() {
+        assertSameResponse(handler.handleInvalidCountryException(new InvalidCountryException("XX")),
+                GlobalExceptionHandler.toErrorResponse(new InvalidCountryException("XX")));
+        assertSameResponse(handler.handleInvalidYearException(new InvalidYearException("1800")),
+                GlobalExceptionHandler.toErrorResponse(new InvalidYearException("1800")));
+        assertSameResponse(handler.handleInvalidRequestException(new InvalidRequestException("empty")),
+                GlobalExceptionHandler.toErrorResponse(new InvalidRequestException("empty")));
+        assertSameResponse(handler.handleDataNotFoundException(new DataNotFoundException("none")),
+                GlobalExceptionHandler.toErrorResponse(new DataNotFoundException("none")));
+        assertSameResponse(handler.handleUpstreamUnavailableException(new UpstreamThrottledException("busy")),
+                GlobalExceptionHandler.toErrorResponse(new UpstreamThrottledException("busy")));
+        assertSameResponse(handler.handleHolidayServiceException(new HolidayServiceException("failed")),
+                GlobalExceptionHandler.toErrorResponse(new HolidayServiceException("failed")));
+        assertSameResponse(handler.handleHttpClientErrorException(new HttpClientErrorException(HttpStatus.NOT_FOUND)),
+                GlobalExceptionHandler.toErrorResponse(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        assertSameResponse(handler.handleGeneralException(new IllegalStateException("bug")),
+                GlobalExceptionHandler.toErrorResponse(new IllegalStateException("bug")));
+    }
+
+    private static void assertSameResponse(ResponseEntity<Map<String, Object>> expected,
+                                           ResponseEntity<Map<String, Object>> actual) {
+        assertEquals(expected.getStatusCode(), actual.getStatusCode());
+        assertEquals(expected.getBody().get("error"), actual.getBody().get("error"));
+        assertEquals(expected.getBody().get("message"), actual.getBody().get("message"));
+    }
+}
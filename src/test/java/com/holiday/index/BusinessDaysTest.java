@@ -0,0 +1,113 @@
+package com.holiday.index;
+
+import com.holiday.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BusinessDays class.
+ * This class checks the prefix-sum counts and the n-th business day lookups against a day-by-day walk
+ * of the calendar, for the default and for other weekends.
+ */
+public class BusinessDaysTest {
+
+    private static final Set<DayOfWeek> SATURDAY_SUNDAY = Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    private static final Set<DayOfWeek> FRIDAY_SATURDAY = Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+
+    private static final HolidayIndex NL_2024 = HolidayIndex.of("NL", 2024, List.of(
+            holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+            holiday(LocalDate.of(2024, 4, 27), "King's Day"),        // Saturday
+            holiday(LocalDate.of(2024, 5, 9), "Ascension Day"),
+            holiday(LocalDate.of(2024, 12, 25), "Christmas Day"),
+            holiday(LocalDate.of(2024, 12, 26), "St. Stephen's Day")));
+
+    private static Holiday holiday(LocalDate date, String name) {
+        return new Holiday(date, name, name, "NL", null, null, List.of("Public"));
+    }
+
+    private static boolean isBusinessDay(HolidayIndex holidays, Set<DayOfWeek> weekend, LocalDate date) {
+        return !weekend.contains(date.getDayOfWeek()) && !holidays.isHoliday(date);
+    }
+
+    @Test
+    public void testCountsMatchADayByDayWalk() {
+        for (Set<DayOfWeek> weekend : List.of(SATURDAY_SUNDAY, FRIDAY_SATURDAY, Set.<DayOfWeek>of())) {
+            BusinessDays calendar = BusinessDays.of(NL_2024, weekend);
+            assertEquals(366, calendar.length());
+
+            for (int from = 1; from <= 366; from += 7) {
+                int expected = 0;
+                for (int to = from; to <= 366; to++) {
+                    if (isBusinessDay(NL_2024, weekend, LocalDate.ofYearDay(2024, to))) {
+                        expected++;
+                    }
+                    assertEquals(expected, calendar.count(from, to), weekend + " " + from + "-" + to);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCountsTheDefaultWeekend() {
+        BusinessDays calendar = BusinessDays.of(NL_2024, SATURDAY_SUNDAY);
+
+        // 262 weekdays in 2024, of which 4 are holidays; King's Day falls on a Saturday
+        assertEquals(258, calendar.total());
+        assertFalse(calendar.isBusinessDay(1));
+        assertTrue(calendar.isBusinessDay(2));
+        assertEquals(0, calendar.count(LocalDate.of(2024, 12, 25).getDayOfYear(), LocalDate.of(2024, 12, 26).getDayOfYear()));
+        assertEquals(0, calendar.count(10, 9));
+    }
+
+    @Test
+    public void testNthBusinessDayMatchesADayByDayWalk() {
+        BusinessDays calendar = BusinessDays.of(NL_2024, SATURDAY_SUNDAY);
+
+        for (int from = 1; from <= 366; from++) {
+            LocalDate date = LocalDate.ofYearDay(2024, from);
+            for (int n = 1; n <= 5; n++) {
+                LocalDate forward = date.minusDays(1);
+                for (int found = 0; found < n; ) {
+                    forward = forward.plusDays(1);
+                    if (isBusinessDay(NL_2024, SATURDAY_SUNDAY, forward)) {
+                        found++;
+                    }
+                }
+                int after = calendar.nthOnOrAfter(from, n);
+                assertEquals(forward.getYear() == 2024 ? forward.getDayOfYear() : -1, after, date + " +" + n);
+
+                LocalDate backward = date.plusDays(1);
+                for (int found = 0; found < n; ) {
+                    backward = backward.minusDays(1);
+                    if (isBusinessDay(NL_2024, SATURDAY_SUNDAY, backward)) {
+                        found++;
+                    }
+                }
+                int before = calendar.nthOnOrBefore(from, n);
+                assertEquals(backward.getYear() == 2024 ? backward.getDayOfYear() : -1, before, date + " -" + n);
+            }
+        }
+    }
+
+    @Test
+    public void testIndexKeepsTheCalendarOfItsWeekend() {
+        HolidayIndex index = HolidayIndex.of("NL", 2023, List.of(holiday(LocalDate.of(2023, 1, 1), "New Year's Day")));
+
+        BusinessDays calendar = index.businessDays(SATURDAY_SUNDAY);
+        assertSame(calendar, index.businessDays(Set.of(DayOfWeek.SUNDAY, DayOfWeek.SATURDAY)));
+        assertEquals(365, calendar.length());
+        assertEquals(260, calendar.total());
+
+        BusinessDays fridaySaturday = index.businessDays(FRIDAY_SATURDAY);
+        assertEquals(FRIDAY_SATURDAY, fridaySaturday.weekend());
+        // 2023 has 53 Sundays, business days with a Friday and Saturday weekend, but 1 January is a holiday
+        assertEquals(260, fridaySaturday.total());
+        assertTrue(fridaySaturday.isBusinessDay(2));
+    }
+}
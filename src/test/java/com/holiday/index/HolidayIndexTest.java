@@ -0,0 +1,213 @@
+package com.holiday.index;
+
+import com.holiday.model.Holiday;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HolidayIndex class.
+ * This class tests the day-of-year bit set, the date-sorted name arrays,
+ * the weekday count, the intersection of two indexes, and the heap footprint of the compact form.
+ */
+public class HolidayIndexTest {
+
+    private static Holiday holiday(LocalDate date, String name) {
+        return new Holiday(date, name + " (local)", name, "NL", null, null, List.of("Public"));
+    }
+
+    @Test
+    public void testIndexIsSortedByDateAndSkipsOtherYears() {
+        HolidayIndex index = HolidayIndex.of("nl", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 31), "New Year's Eve"),
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+                holiday(LocalDate.of(2025, 1, 1), "Next New Year's Day"),
+                holiday(LocalDate.of(2024, 2, 29), "Leap Day")));
+
+        assertEquals("NL", index.countryCode());
+        assertEquals(3, index.size());
+        assertEquals(LocalDate.of(2024, 1, 1), index.dateAt(0));
+        assertEquals(LocalDate.of(2024, 2, 29), index.dateAt(1));
+        assertEquals(LocalDate.of(2024, 12, 31), index.dateAt(2));
+        assertEquals("New Year's Eve", index.nameAt(2));
+        assertEquals("Leap Day (local)", index.localNameAt(1));
+        assertTrue(index.isHoliday(LocalDate.of(2024, 12, 31)));
+        assertFalse(index.isHoliday(LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    public void testRankCountsHolidaysBeforeADay() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+                holiday(LocalDate.of(2024, 4, 27), "King's Day"),
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day")));
+
+        assertEquals(0, index.rank(1));
+        assertEquals(1, index.rank(2));
+        assertEquals(1, index.rank(LocalDate.of(2024, 4, 27).getDayOfYear()));
+        assertEquals(3, index.rank(366));
+    }
+
+    @Test
+    public void testSameDayHolidaysAreIndexedOnce() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 5, 5), "Liberation Day"),
+                holiday(LocalDate.of(2024, 5, 5), "Remembrance"),
+                holiday(LocalDate.of(2024, 5, 6), "Monday")));
+
+        assertEquals(2, index.size());
+        assertEquals("Liberation Day", index.nameAt(0));
+    }
+
+    @Test
+    public void testWeekdayHolidayCount() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "Monday"),
+                holiday(LocalDate.of(2024, 1, 6), "Saturday"),
+                holiday(LocalDate.of(2024, 1, 7), "Sunday"),
+                holiday(LocalDate.of(2024, 12, 31), "Tuesday")));
+
+        assertEquals(2, index.weekdayHolidayCount());
+    }
+
+    @Test
+    public void testWeekdayHolidayCountCountsHolidaysSharingADate() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 5, 5), "Liberation Day"),   // Sunday
+                holiday(LocalDate.of(2024, 5, 5), "Remembrance"),
+                holiday(LocalDate.of(2024, 5, 6), "Monday"),
+                holiday(LocalDate.of(2024, 5, 6), "Also Monday")));
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.weekdayHolidayCount());
+        assertEquals(2, index.asStale().weekdayHolidayCount());
+    }
+
+    @Test
+    public void testCommonDays() {
+        HolidayIndex one = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+                holiday(LocalDate.of(2024, 4, 27), "King's Day"),
+                holiday(LocalDate.of(2024, 12, 31), "New Year's Eve")));
+        HolidayIndex two = HolidayIndex.of("DE", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 31), "Silvester"),
+                holiday(LocalDate.of(2024, 1, 1), "Neujahr")));
+
+        long[] common = one.commonDays(two);
+
+        assertEquals(1, HolidayIndex.nextSetBit(common, 1));
+        assertEquals(366, HolidayIndex.nextSetBit(common, 2));
+        assertEquals(-1, HolidayIndex.nextSetBit(common, 367));
+        assertThrows(IllegalArgumentException.class,
+                () -> one.commonDays(HolidayIndex.of("DE", 2025, List.of())));
+    }
+
+    @Test
+    public void testSharedDaysByAllOrAtLeastKIndexes() {
+        List<HolidayIndex> indexes = List.of(
+                HolidayIndex.of("NL", 2024, List.of(holiday(LocalDate.of(2024, 1, 1), "A"), holiday(LocalDate.of(2024, 5, 1), "B"))),
+                HolidayIndex.of("DE", 2024, List.of(holiday(LocalDate.of(2024, 1, 1), "A"), holiday(LocalDate.of(2024, 5, 1), "B"))),
+                HolidayIndex.of("BE", 2024, List.of(holiday(LocalDate.of(2024, 1, 1), "A"), holiday(LocalDate.of(2024, 7, 21), "C"))));
+
+        long[] all = HolidayIndex.sharedDays(indexes, 3);
+        assertEquals(1, HolidayIndex.nextSetBit(all, 1));
+        assertEquals(-1, HolidayIndex.nextSetBit(all, 2));
+
+        long[] atLeastTwo = HolidayIndex.sharedDays(indexes, 2);
+        assertEquals(1, HolidayIndex.nextSetBit(atLeastTwo, 1));
+        assertEquals(LocalDate.of(2024, 5, 1).getDayOfYear(), HolidayIndex.nextSetBit(atLeastTwo, 2));
+        assertEquals(-1, HolidayIndex.nextSetBit(atLeastTwo, LocalDate.of(2024, 5, 1).getDayOfYear() + 1));
+    }
+
+    @Test
+    public void testIndexOfFindsHolidaysByDayOfYear() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+                holiday(LocalDate.of(2024, 4, 27), "King's Day")));
+
+        assertEquals(0, index.indexOf(1));
+        assertEquals(1, index.indexOf(LocalDate.of(2024, 4, 27).getDayOfYear()));
+        assertEquals(-1, index.indexOf(2));
+        assertEquals(-1, index.indexOf(366));
+    }
+
+    @Test
+    public void testLookupsDoNotAllocate() {
+        HolidayIndex index = HolidayIndex.of("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day"),
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day")));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int found = 0;
+        for (int dayOfYear = 1; dayOfYear <= 366; dayOfYear++) {
+            found += index.indexOf(dayOfYear) >= 0 && index.hasType(index.indexOf(dayOfYear), HolidayType.PUBLIC) ? 1 : 0;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            int dayOfYear = i % 366 + 1;
+            int position = index.indexOf(dayOfYear);
+            found += position >= 0 && index.hasType(position, HolidayType.PUBLIC) ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(found > 0);
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    @Test
+    public void testTypesOfSameDayHolidaysAreMerged() {
+        HolidayIndex index = HolidayIndex.of("DE", 2024, List.of(
+                new Holiday(LocalDate.of(2024, 10, 31), "Reformationstag", "Reformation Day", "DE",
+                        List.of("DE-BB"), 2018, List.of("Public")),
+                new Holiday(LocalDate.of(2024, 10, 31), "Halloween", "Halloween", "DE",
+                        null, null, List.of("Observance", "Unknown")),
+                new Holiday(LocalDate.of(2024, 12, 24), "Heiligabend", "Christmas Eve", "DE",
+                        null, null, null)));
+
+        assertEquals(Set.of(HolidayType.PUBLIC, HolidayType.OBSERVANCE), index.typesAt(0));
+        assertTrue(index.hasType(0, HolidayType.PUBLIC));
+        assertFalse(index.hasType(0, HolidayType.BANK));
+        assertEquals(Set.of(), index.typesAt(1));
+    }
+
+    @Test
+    public void testNamesAreSharedAcrossYears() {
+        HolidayIndex one = HolidayIndex.of("NL", 2023, List.of(holiday(LocalDate.of(2023, 1, 1), new String("New Year"))));
+        HolidayIndex two = HolidayIndex.of("NL", 2024, List.of(holiday(LocalDate.of(2024, 1, 1), new String("New Year"))));
+
+        assertSame(one.nameAt(0), two.nameAt(0));
+        assertSame(one.localNameAt(0), two.localNameAt(0));
+        assertSame(one.countryCode(), two.countryCode());
+    }
+
+    /**
+     * Compares the retained heap of a hundred years of holidays of one country as decoded from NAGER,
+     * with fresh strings and lists for every year, against the same years as cached indexes.
+     */
+    @Test
+    public void testCompactFormRetainsLessThanATenthOfTheDecodedHolidays() {
+        List<List<Holiday>> decoded = IntStream.rangeClosed(1975, 2074)
+                .mapToObj(year -> IntStream.range(0, 12)
+                        .mapToObj(i -> new Holiday(LocalDate.of(year, i + 1, 1 + i),
+                                new String("Lokale feestdag " + i), new String("National holiday " + i), new String("NL"),
+                                List.of(new String("NL-NH"), new String("NL-ZH")), 1950 + i,
+                                List.of(new String("Public"), new String("Bank"))))
+                        .toList())
+                .toList();
+        List<HolidayIndex> indexes = decoded.stream()
+                .map(holidays -> HolidayIndex.of("NL", holidays.getFirst().date().getYear(), holidays))
+                .toList();
+
+        long decodedBytes = GraphLayout.parseInstance(decoded).totalSize();
+        long indexedBytes = GraphLayout.parseInstance(indexes).totalSize();
+
+        assertTrue(indexedBytes * 10 < decodedBytes, indexedBytes + " bytes indexed vs " + decodedBytes + " decoded");
+    }
+}
@@ -0,0 +1,91 @@
+package com.holiday.repository;
+
+import com.holiday.model.Holiday;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HolidayDiskStore class.
+ * This class tests that past years are stored and read back losslessly,
+ * and that current years, unreadable files and invalid country codes are never served.
+ */
+public class HolidayDiskStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private static final List<Holiday> HOLIDAYS = List.of(
+            new Holiday(LocalDate.of(2020, 1, 1), "Nieuwjaarsdag", "New Year's Day", "NL", null, null, List.of("Public")),
+            new Holiday(LocalDate.of(2020, 4, 27), "Koningsdag", "King's Day", "NL", List.of("NL-NH", "NL-UT"), 2014,
+                    List.of("Public", "Bank"))
+    );
+
+    @Test
+    public void testWriteAndReadPastYear() {
+        HolidayDiskStore store = new HolidayDiskStore(true, directory);
+
+        store.write("nl", 2020, HOLIDAYS);
+
+        assertTrue(Files.exists(directory.resolve("NL").resolve("2020.bin")));
+        assertEquals(Optional.of(HOLIDAYS), new HolidayDiskStore(true, directory).read("NL", 2020));
+    }
+
+    @Test
+    public void testCurrentYearIsNotStored() {
+        HolidayDiskStore store = new HolidayDiskStore(true, directory);
+        int currentYear = Year.now().getValue();
+
+        store.write("NL", currentYear, HOLIDAYS);
+
+        assertEquals(Optional.empty(), store.read("NL", currentYear));
+    }
+
+    @Test
+    public void testDisabledStoreNeitherReadsNorWrites() {
+        HolidayDiskStore store = new HolidayDiskStore(false, directory);
+
+        store.write("NL", 2020, HOLIDAYS);
+
+        assertFalse(Files.exists(directory.resolve("NL")));
+        assertEquals(Optional.empty(), store.read("NL", 2020));
+    }
+
+    @Test
+    public void testOnlyTwoLetterCountryCodesAreStored() throws IOException {
+        Path outside = directory.resolve("outside");
+        Files.createDirectories(outside);
+        Files.write(outside.resolve("2020.bin"), new byte[]{1, 2, 3});
+        HolidayDiskStore store = new HolidayDiskStore(true, directory.resolve("store"));
+
+        for (String countryCode : List.of("../outside", "..", "NLD", "N1", "")) {
+            store.write(countryCode, 2020, HOLIDAYS);
+            assertEquals(Optional.empty(), store.read(countryCode, 2020));
+        }
+        store.write("nl", 2020, HOLIDAYS);
+
+        assertTrue(Files.exists(outside.resolve("2020.bin")));
+        assertEquals(List.of(directory.resolve("store").resolve("NL")), Files.list(directory.resolve("store")).toList());
+        assertEquals(Optional.of(HOLIDAYS), store.read("NL", 2020));
+    }
+
+    @Test
+    public void testUnreadableFileIsDiscarded() throws IOException {
+        Path file = directory.resolve("NL").resolve("2020.bin");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3});
+        HolidayDiskStore store = new HolidayDiskStore(true, directory);
+
+        assertEquals(Optional.empty(), store.read("NL", 2020));
+        assertFalse(Files.exists(file));
+    }
+}
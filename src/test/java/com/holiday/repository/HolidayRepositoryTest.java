@@ -0,0 +1,282 @@
+package com.holiday.repository;
+
+import com.holiday.client.HolidayApiClient;
+import com.holiday.config.CacheConfig;
+import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.Holiday;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HolidayRepository class.
+ * This class verifies that repeated lookups are served from the cache
+ * instead of reaching the Holiday API every time.
+ */
+@SpringJUnitConfig(classes = {CacheConfig.class, HolidayRepository.class, SingleFlightHolidayLoader.class,
+        SimpleMeterRegistry.class})
+public class HolidayRepositoryTest {
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @MockitoBean
+    private HolidayApiClient holidayApiClient;
+
+    @MockitoBean
+    private HolidayDiskStore holidayStore;
+
+    @Test
+    public void testGetHolidayIndex_callsUpstreamOncePerCountryAndYear() {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2024, 1, 1), "New Year", "New Year", "US", null, null, List.of("Public")));
+        when(holidayApiClient.fetchHolidaysForYear(anyString(), anyInt())).thenReturn(holidays);
+
+        HolidayIndex index = holidayRepository.getHolidayIndex("US", 2024);
+        for (int i = 0; i < 5; i++) {
+            assertSame(index, holidayRepository.getHolidayIndex("US", 2024));
+        }
+        assertSame(index, holidayRepository.getHolidayIndex("us", 2024));
+        holidayRepository.getHolidayIndex("US", 2025);
+
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("US", 2024);
+        verify(holidayApiClient, never()).fetchHolidaysForYear("us", 2024);
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("US", 2025);
+    }
+
+    @Test
+    public void testGetHolidayIndex_readsThroughTheDiskStore() {
+        List<Holiday> stored = List.of(
+                new Holiday(LocalDate.of(2019, 1, 1), "Neujahr", "New Year's Day", "DE", null, null, List.of("Public")));
+        List<Holiday> fetched = List.of(
+                new Holiday(LocalDate.of(2018, 1, 1), "Neujahr", "New Year's Day", "DE", null, null, List.of("Public")));
+        when(holidayStore.read("DE", 2019)).thenReturn(Optional.of(stored));
+        when(holidayApiClient.fetchHolidaysForYear("DE", 2018)).thenReturn(fetched);
+
+        assertEquals(LocalDate.of(2019, 1, 1), holidayRepository.getHolidayIndex("DE", 2019).dateAt(0));
+        assertEquals(LocalDate.of(2018, 1, 1), holidayRepository.getHolidayIndex("DE", 2018).dateAt(0));
+
+        verify(holidayApiClient, never()).fetchHolidaysForYear("DE", 2019);
+        verify(holidayStore).write("DE", 2018, fetched);
+    }
+
+    @Test
+    public void testGetHolidayIndexAsync_sharesCacheWithBlockingLookups() {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2023, 1, 1), "Nieuwjaar", "New Year", "NL", null, null, List.of("Public")));
+        when(holidayApiClient.fetchHolidaysForYearAsync("NL", 2023)).thenReturn(Mono.just(holidays));
+
+        HolidayIndex index = holidayRepository.getHolidayIndexAsync("NL", 2023).block();
+        assertEquals("Nieuwjaar", index.localNameAt(0));
+        assertSame(index, holidayRepository.getHolidayIndexAsync("nl", 2023).block());
+        assertSame(index, holidayRepository.getHolidayIndex("NL", 2023));
+
+        verify(holidayApiClient, times(1)).fetchHolidaysForYearAsync("NL", 2023);
+        verify(holidayApiClient, never()).fetchHolidaysForYear(anyString(), anyInt());
+    }
+
+    @Test
+    public void testConcurrentMisses_areCoalescedByTheCacheOrTheLoader() {
+        when(holidayApiClient.fetchHolidaysForYear("AT", 2024)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of();
+        });
+        when(holidayApiClient.fetchHolidaysForYearAsync("AT", 2025))
+                .thenReturn(Mono.just(List.<Holiday>of()).delayElement(Duration.ofMillis(100)));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(() -> holidayRepository.getHolidayIndex("AT", 2024));
+            }
+        }
+        assertEquals(0, coalescedCount());
+
+        Flux.range(0, 10).flatMap(i -> holidayRepository.getHolidayIndexAsync("AT", 2025)).blockLast();
+        assertEquals(9, coalescedCount());
+
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("AT", 2024);
+        verify(holidayApiClient, times(1)).fetchHolidaysForYearAsync("AT", 2025);
+    }
+
+    @Test
+    public void testCacheMissesOnVirtualThreadsDoNotPinCarrierThreads() throws Exception {
+        when(holidayApiClient.fetchHolidaysForYear(anyString(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(50); // stands in for the blocking NAGER call
+            return List.of();
+        });
+        AtomicInteger pinnedEvents = new AtomicInteger();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.incrementAndGet());
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 20; i++) {
+                    int year = 2000 + i % 5;
+                    executor.submit(() -> holidayRepository.getHolidayIndex("DE", year));
+                }
+            }
+            recording.stop();
+        }
+
+        assertEquals(0, pinnedEvents.get());
+        verify(holidayApiClient, times(5)).fetchHolidaysForYear(eq("DE"), anyInt());
+    }
+
+    @Test
+    public void testGetHolidayIndex_propagatesUpstreamExceptionsAndDoesNotCacheThem() throws Exception {
+        when(holidayApiClient.fetchHolidaysForYear("XX", 2024))
+                .thenThrow(new InvalidCountryException("Invalid country code: XX or no data available for year: 2024"));
+
+        assertThrows(InvalidCountryException.class, () -> holidayRepository.getHolidayIndex("XX", 2024));
+        awaitEviction(CacheConfig.HOLIDAYS_CACHE, "XX_2024");
+        assertThrows(InvalidCountryException.class, () -> holidayRepository.getHolidayIndex("XX", 2024));
+
+        verify(holidayApiClient, times(2)).fetchHolidaysForYear("XX", 2024);
+    }
+
+    @Test
+    public void testGetHolidayIndex_servesStaleDataWhileReloadingExpiredEntries() throws Exception {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2022, 1, 1), "New Year", "New Year", "GB", null, null, List.of("Public")));
+        List<Holiday> reloaded = List.of(
+                new Holiday(LocalDate.of(2022, 1, 3), "New Year", "New Year", "GB", null, null, List.of("Public")));
+        when(holidayApiClient.fetchHolidaysForYear("GB", 2022)).thenReturn(holidays).thenReturn(reloaded);
+
+        assertFalse(holidayRepository.getHolidayIndex("GB", 2022).isStale());
+        cacheManager.getCache(CacheConfig.HOLIDAYS_CACHE).evict("GB_2022");
+
+        HolidayIndex stale = holidayRepository.getHolidayIndex("GB", 2022);
+        assertTrue(stale.isStale());
+        assertEquals(LocalDate.of(2022, 1, 1), stale.dateAt(0));
+
+        HolidayIndex fresh = awaitFresh("GB", 2022);
+        assertEquals(LocalDate.of(2022, 1, 3), fresh.dateAt(0));
+        verify(holidayApiClient, times(2)).fetchHolidaysForYear("GB", 2022);
+    }
+
+    @Test
+    public void testGetHolidayIndex_keepsServingStaleDataWhileUpstreamIsUnavailable() throws Exception {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2021, 1, 1), "New Year", "New Year", "FR", null, null, List.of("Public")));
+        when(holidayApiClient.fetchHolidaysForYear("FR", 2021)).thenReturn(holidays)
+                .thenThrow(new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open"));
+
+        holidayRepository.getHolidayIndex("FR", 2021);
+        cacheManager.getCache(CacheConfig.HOLIDAYS_CACHE).evict("FR_2021");
+
+        assertTrue(holidayRepository.getHolidayIndex("FR", 2021).isStale());
+        verify(holidayApiClient, timeout(1000).times(2)).fetchHolidaysForYear("FR", 2021);
+        assertTrue(holidayRepository.getHolidayIndexAsync("FR", 2021).block().isStale());
+        verify(holidayApiClient, times(2)).fetchHolidaysForYear("FR", 2021);
+    }
+
+    @Test
+    public void testGetHolidayIndex_reloadsAStaleEntryOnceAtATime() throws Exception {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2019, 1, 1), "New Year", "New Year", "IT", null, null, List.of("Public")));
+        CountDownLatch reloading = new CountDownLatch(1);
+        when(holidayApiClient.fetchHolidaysForYear("IT", 2019)).thenReturn(holidays).thenAnswer(invocation -> {
+            reloading.await();
+            return holidays;
+        });
+        holidayRepository.getHolidayIndex("IT", 2019);
+        double coalescedBefore = coalescedCount();
+
+        for (int i = 0; i < 5; i++) {
+            cacheManager.getCache(CacheConfig.HOLIDAYS_CACHE).evict("IT_2019");
+            assertTrue(holidayRepository.getHolidayIndex("IT", 2019).isStale());
+        }
+        verify(holidayApiClient, timeout(1000).times(2)).fetchHolidaysForYear("IT", 2019);
+        reloading.countDown();
+
+        assertFalse(awaitFresh("IT", 2019).isStale());
+        verify(holidayApiClient, times(2)).fetchHolidaysForYear("IT", 2019);
+        // Only one reload was started; further ones would have joined it through the loader.
+        assertEquals(coalescedBefore, coalescedCount());
+    }
+
+    @Test
+    public void testGetCachedHolidayIndex_onlyReturnsLoadedIndexes() {
+        when(holidayApiClient.fetchHolidaysForYear("BE", 2020)).thenReturn(List.of(
+                new Holiday(LocalDate.of(2020, 7, 21), "Nationale feestdag", "Belgian National Day", "BE",
+                        null, null, List.of("Public"))));
+
+        assertNull(holidayRepository.getCachedHolidayIndex("BE", 2020));
+        HolidayIndex index = holidayRepository.getHolidayIndex("BE", 2020);
+
+        assertSame(index, holidayRepository.getCachedHolidayIndex("be", 2020));
+        assertNull(holidayRepository.getCachedHolidayIndex(null, 2020));
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("BE", 2020);
+    }
+
+    @Test
+    public void testGetAvailableCountries_callsUpstreamOnce() {
+        when(holidayApiClient.fetchAvailableCountries()).thenReturn(Set.of("US", "NL"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Set.of("US", "NL"), holidayRepository.getAvailableCountries());
+        }
+
+        verify(holidayApiClient, times(1)).fetchAvailableCountries();
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.get("holiday.upstream.coalesced").tag("operation", "holidays").counter().count();
+    }
+
+    private HolidayIndex awaitFresh(String countryCode, int year) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        HolidayIndex index = holidayRepository.getHolidayIndex(countryCode, year);
+        while (index.isStale() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            index = holidayRepository.getHolidayIndex(countryCode, year);
+        }
+        return index;
+    }
+
+    /**
+     * Caffeine drops a failed load on the loading thread, which may run just after the caller has seen the exception.
+     */
+    private void awaitEviction(String cacheName, String key) throws InterruptedException {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(cacheName);
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (cache.getAsyncCache().asMap().containsKey(key) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
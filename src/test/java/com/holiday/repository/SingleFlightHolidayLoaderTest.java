@@ -0,0 +1,109 @@
+package com.holiday.repository;
+
+import com.holiday.client.HolidayApiClient;
+import com.holiday.exception.HolidayServiceException;
+import com.holiday.model.Holiday;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SingleFlightHolidayLoader class.
+ * This class tests that concurrent requests for the same country and year share one upstream call.
+ */
+public class SingleFlightHolidayLoaderTest {
+
+    private static final int CALLERS = 50;
+
+    private HolidayApiClient holidayApiClient;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightHolidayLoader loader;
+
+    @BeforeEach
+    public void setUp() {
+        holidayApiClient = mock(HolidayApiClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        loader = new SingleFlightHolidayLoader(holidayApiClient, meterRegistry);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneUpstreamCall() throws Exception {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2026, 1, 1), "Neujahr", "New Year's Day", "DE", null, null, List.of("Public")));
+        CountDownLatch release = new CountDownLatch(1);
+        when(holidayApiClient.fetchHolidaysForYear("DE", 2026)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return holidays;
+        });
+
+        List<Future<List<Holiday>>> results = runConcurrently(() -> loader.fetchHolidaysForYear("DE", 2026), release);
+
+        for (Future<List<Holiday>> result : results) {
+            assertEquals(holidays, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("DE", 2026);
+        assertEquals(CALLERS - 1, coalescedCount("holidays"));
+    }
+
+    @Test
+    public void testCoalescedCallersReceiveTheUpstreamException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(holidayApiClient.fetchHolidaysForYear("DE", 2026)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new HolidayServiceException("Error fetching holiday data: 503");
+        });
+
+        List<Future<List<Holiday>>> results = runConcurrently(() -> loader.fetchHolidaysForYear("DE", 2026), release);
+
+        for (Future<List<Holiday>> result : results) {
+            Exception ex = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HolidayServiceException.class, ex.getCause());
+        }
+        verify(holidayApiClient, times(1)).fetchHolidaysForYear("DE", 2026);
+    }
+
+    @Test
+    public void testSequentialCallsAreNotCoalesced() {
+        when(holidayApiClient.fetchHolidaysForYear("DE", 2026)).thenReturn(List.of());
+
+        loader.fetchHolidaysForYear("DE", 2026);
+        loader.fetchHolidaysForYear("DE", 2026);
+
+        verify(holidayApiClient, times(2)).fetchHolidaysForYear("DE", 2026);
+        assertEquals(0, coalescedCount("holidays"));
+    }
+
+    private <T> List<Future<T>> runConcurrently(Callable<T> call, CountDownLatch release)
+            throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(call));
+            }
+            // Give every caller the chance to join the in-flight call before it completes.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalescedCount("holidays") < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            return results;
+        }
+    }
+
+    private double coalescedCount(String operation) {
+        return meterRegistry.get("holiday.upstream.coalesced").tag("operation", operation).counter().count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.holiday.service;
+
+import com.holiday.exception.InvalidCountryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FanOutExecutor class.
+ * This class tests that tasks run concurrently, respect the concurrency cap
+ * and report their results and exceptions in the order of the submitted items, and that cancelled tasks are skipped.
+ */
+public class FanOutExecutorTest {
+
+    private final FanOutExecutor fanOutExecutor = new FanOutExecutor(3);
+
+    @AfterEach
+    public void tearDown() {
+        fanOutExecutor.destroy();
+    }
+
+    @Test
+    public void testSubmitAll_runsConcurrentlyWithinTheCap() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> items = IntStream.range(0, 12).boxed().toList();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Integer>> futures = fanOutExecutor.submitAll(items, item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(100);
+            inFlight.decrementAndGet();
+            return item * 2;
+        });
+        List<Integer> results = futures.stream().map(FanOutExecutor::join).toList();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(IntStream.range(0, 12).map(i -> i * 2).boxed().toList(), results);
+        assertEquals(3, maxInFlight.get());
+        assertTrue(elapsedMillis < 12 * 100, "tasks should not run one after another: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void testJoin_rethrowsTheTaskException() {
+        List<CompletableFuture<String>> futures = fanOutExecutor.submitAll(List.of("US", "XX"), code -> {
+            if (code.equals("XX")) {
+                throw new InvalidCountryException("Invalid country code: " + code);
+            }
+            return code;
+        });
+
+        assertEquals("US", FanOutExecutor.join(futures.get(0)));
+        InvalidCountryException ex = assertThrows(InvalidCountryException.class,
+                () -> FanOutExecutor.join(futures.get(1)));
+        assertEquals("Invalid country code: XX", ex.getMessage());
+    }
+
+    @Test
+    public void testInCompletionOrder_yieldsResultsAsTheyComplete() {
+        List<CompletableFuture<String>> futures = fanOutExecutor.submitAll(List.of("US", "DE", "NL", "XX"), code -> {
+            switch (code) {
+                case "US" -> sleep(300);
+                case "NL" -> sleep(100);
+                case "XX" -> {
+                    sleep(200); // starts once DE has freed a slot, so it finishes between NL and US
+                    throw new InvalidCountryException("Invalid country code: " + code);
+                }
+                default -> { }
+            }
+            return code;
+        });
+
+        Iterator<String> results = FanOutExecutor.inCompletionOrder(futures).iterator();
+        assertEquals("DE", results.next());
+        assertEquals("NL", results.next());
+        assertThrows(InvalidCountryException.class, results::next);
+        assertEquals("US", results.next());
+        assertFalse(results.hasNext());
+    }
+
+    @Test
+    public void testCancelAll_skipsTasksThatHaveNotStarted() {
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = fanOutExecutor.submitAll(IntStream.range(0, 10).boxed().toList(),
+                item -> {
+                    started.incrementAndGet();
+                    sleep(100);
+                    return item;
+                });
+
+        sleep(20);
+        FanOutExecutor.cancelAll(futures);
+        sleep(300);
+
+        assertEquals(3, started.get());
+        assertTrue(futures.stream().allMatch(CompletableFuture::isCancelled));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
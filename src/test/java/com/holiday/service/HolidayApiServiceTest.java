@@ -1,23 +1,54 @@
 package com.holiday.service;
 
-import com.holiday.client.HolidayApiClient;
+import com.holiday.config.BusinessDayProperties;
 import com.holiday.exception.DataNotFoundException;
 import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.InvalidRequestException;
 import com.holiday.exception.InvalidYearException;
+import com.holiday.exception.UpstreamUnavailableException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.BatchQuery;
+import com.holiday.model.BatchResult;
+import com.holiday.model.BusinessDayCountResponse;
+import com.holiday.model.BusinessDayResponse;
+import com.holiday.model.CommonHoliday;
+import com.holiday.model.CommonHolidaysAcrossResponse;
+import com.holiday.model.CommonHolidaysForYear;
 import com.holiday.model.CommonHolidaysResponse;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.CountryHolidaysResponse;
 import com.holiday.model.Holiday;
+import com.holiday.model.HolidayCheckResponse;
+import com.holiday.model.HolidayDetails;
 import com.holiday.model.LastThreeHolidaysResponse;
+import com.holiday.model.SharedHoliday;
+import com.holiday.model.WeekdayHolidaysForYear;
 import com.holiday.model.WeekdayHolidaysResponse;
+import com.holiday.repository.HolidayRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,19 +62,25 @@ import static org.mockito.Mockito.*;
 public class HolidayApiServiceTest {
 
     @Mock
-    private HolidayApiClient holidayApiClient;
+    private HolidayRepository holidayRepository;
     private HolidayApiService holidayApiService;
 
     private static Holiday holiday(LocalDate date, String name, String localName, String countryCode) {
         return new Holiday(date, localName, name, countryCode, null, null, List.of("Public"));
     }
 
+    private static HolidayIndex index(String countryCode, int year, List<Holiday> holidays) {
+        return HolidayIndex.of(countryCode, year, holidays);
+    }
+
     @BeforeEach
     public void setUp() {
-        holidayApiService = new HolidayApiService(holidayApiClient);
-        Set<String> validCountries = Set.of("US", "NL");
-        // Stub only client methods that your service calls
-        lenient().when(holidayApiClient.fetchAvailableCountries()).thenReturn(validCountries);
+        holidayApiService = new HolidayApiService(holidayRepository, new FanOutExecutor(4),
+                new LastThreeHolidaysCache(new ConcurrentMapCacheManager(), Jackson2ObjectMapperBuilder.json().build()),
+                new BusinessDayProperties(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+                        Map.of("EG", Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY))));
+        // Stub only repository methods that your service calls
+        lenient().when(holidayRepository.getAvailableCountries()).thenReturn(Set.of("US", "NL", "DE", "BE"));
     }
 
     @Test
@@ -57,7 +94,8 @@ public class HolidayApiServiceTest {
                 holiday(today.minusDays(20), "Thanksgiving Day", "Thanksgiving", "US"),
                 holiday(today.plusDays(5), "Future Holiday", "Toekomstige", "US")
         );
-        when(holidayApiService.getHolidaysForYear(eq(countryCode), anyInt())).thenReturn(holidays);
+        when(holidayRepository.getHolidayIndex(eq(countryCode), anyInt()))
+                .thenAnswer(invocation -> index(countryCode, invocation.getArgument(1), holidays));
 
         LastThreeHolidaysResponse response = holidayApiService.getLastThreeCelebratedHolidays(countryCode);
         assertEquals("US", response.country());
@@ -65,6 +103,216 @@ public class HolidayApiServiceTest {
         assertTrue(response.holidays().stream().allMatch(h -> h.date().isBefore(LocalDate.now())));
     }
 
+    @Test
+    public void testGetLastThreeCelebratedHolidaysJson_isSerializedOnceUntilTheNextHoliday() {
+        LocalDate today = LocalDate.now();
+        List<Holiday> holidays = List.of(
+                holiday(today.minusDays(1), "New Year's Day", "Nieuwjaar", "US"),
+                holiday(today.plusDays(5), "Future Holiday", "Toekomstige", "US")
+        );
+        when(holidayRepository.getHolidayIndex(eq("US"), anyInt()))
+                .thenAnswer(invocation -> index("US", invocation.getArgument(1), holidays));
+
+        byte[] response = holidayApiService.getLastThreeCelebratedHolidaysJson("US");
+        String json = new String(response, StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"country\":\"US\",\"holidays\":[{\"date\":\"" + today.minusDays(1) + "\""), json);
+        assertFalse(json.contains("Future Holiday"));
+        assertSame(response, holidayApiService.getLastThreeCelebratedHolidaysJson("us"));
+
+        verify(holidayRepository, times(1)).getHolidayIndex("US", today.getYear());
+        verify(holidayRepository, times(1)).getAvailableCountries();
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidaysJson_doesNotCacheStaleData() {
+        LocalDate today = LocalDate.now();
+        List<Holiday> holidays = List.of(holiday(today.minusDays(1), "New Year's Day", "Nieuwjaar", "US"));
+        when(holidayRepository.getHolidayIndex(eq("US"), anyInt()))
+                .thenAnswer(invocation -> index("US", invocation.getArgument(1), holidays).asStale());
+
+        holidayApiService.getLastThreeCelebratedHolidaysJson("US");
+        holidayApiService.getLastThreeCelebratedHolidaysJson("US");
+
+        verify(holidayRepository, times(2)).getHolidayIndex("US", today.getYear());
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidays_walksBackIntoEarlierYearsOnlyAsFarAsNeeded() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayRepository.getHolidayIndex("US", currentYear)).thenReturn(index("US", currentYear, List.of()));
+        when(holidayRepository.getHolidayIndex("US", currentYear - 1)).thenReturn(index("US", currentYear - 1, List.of(
+                holiday(LocalDate.of(currentYear - 1, 7, 4), "Independence Day", "Independence Day", "US"),
+                holiday(LocalDate.of(currentYear - 1, 12, 25), "Christmas Day", "Christmas Day", "US"))));
+        when(holidayRepository.getHolidayIndex("US", currentYear - 2)).thenReturn(index("US", currentYear - 2, List.of(
+                holiday(LocalDate.of(currentYear - 2, 11, 11), "Veterans Day", "Veterans Day", "US"),
+                holiday(LocalDate.of(currentYear - 2, 12, 25), "Christmas Day", "Christmas Day", "US"))));
+
+        LastThreeHolidaysResponse response = holidayApiService.getLastThreeCelebratedHolidays("US");
+
+        assertEquals(List.of(LocalDate.of(currentYear - 1, 12, 25), LocalDate.of(currentYear - 1, 7, 4),
+                        LocalDate.of(currentYear - 2, 12, 25)),
+                response.holidays().stream().map(HolidayDetails::date).toList());
+        verify(holidayRepository, never()).getHolidayIndex("US", currentYear - 3);
+    }
+
+    @Test
+    public void testGetUpcomingHolidays_walksForwardIntoLaterYears() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayRepository.getHolidayIndex("NL", currentYear)).thenReturn(index("NL", currentYear, List.of()));
+        when(holidayRepository.getHolidayIndex("NL", currentYear + 1)).thenReturn(index("NL", currentYear + 1, List.of(
+                holiday(LocalDate.of(currentYear + 1, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"),
+                holiday(LocalDate.of(currentYear + 1, 4, 27), "King's Day", "Koningsdag", "NL"))));
+
+        CountryHolidaysResponse response = holidayApiService.getUpcomingHolidays("NL", 2);
+
+        assertEquals("NL", response.country());
+        assertEquals(List.of("New Year's Day", "King's Day"),
+                response.holidays().stream().map(HolidayDetails::name).toList());
+        verify(holidayRepository, never()).getHolidayIndex("NL", currentYear + 2);
+    }
+
+    @Test
+    public void testIsHoliday_checksTheDayAndType() {
+        when(holidayRepository.getHolidayIndex("NL", 2024)).thenReturn(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 4, 27), "King's Day", "Koningsdag", "NL"),
+                new Holiday(LocalDate.of(2024, 5, 4), "Dodenherdenking", "Remembrance Day", "NL",
+                        null, null, List.of("Observance")))));
+
+        assertEquals(new HolidayCheckResponse("NL", LocalDate.of(2024, 4, 27), true, "King's Day", "Koningsdag"),
+                holidayApiService.isHoliday("NL", "2024-04-27", null));
+        assertEquals(new HolidayCheckResponse("NL", LocalDate.of(2024, 4, 28), false, null, null),
+                holidayApiService.isHoliday("NL", "2024-04-28", null));
+        assertTrue(holidayApiService.isHoliday("NL", "2024-05-04", "").holiday());
+        assertFalse(holidayApiService.isHoliday("NL", "2024-05-04", "public").holiday());
+        assertTrue(holidayApiService.isHoliday("NL", "2024-05-04", "Observance").holiday());
+    }
+
+    @Test
+    public void testIsHoliday_usesTheCachedIndexWithoutValidating() {
+        when(holidayRepository.getCachedHolidayIndex("DE", 2024)).thenReturn(index("DE", 2024, List.of(
+                holiday(LocalDate.of(2024, 10, 3), "German Unity Day", "Tag der Deutschen Einheit", "DE"))));
+
+        assertTrue(holidayApiService.isHoliday("DE", "2024-10-03", "Public").holiday());
+
+        verify(holidayRepository, never()).getAvailableCountries();
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testParseDate() {
+        assertEquals(LocalDate.of(2024, 2, 29), HolidayApiService.parseDate("2024-02-29"));
+        assertThrows(InvalidRequestException.class, () -> HolidayApiService.parseDate("2023-02-29"));
+        assertThrows(InvalidRequestException.class, () -> HolidayApiService.parseDate("2024-1-01"));
+        assertThrows(InvalidRequestException.class, () -> HolidayApiService.parseDate("2024/01/01"));
+        assertThrows(InvalidRequestException.class, () -> HolidayApiService.parseDate(null));
+    }
+
+    @Test
+    public void testIsHoliday_invalidRequest() {
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.isHoliday("NL", "27-04-2024", null));
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.isHoliday("NL", "2024-04-27", "Religious"));
+        assertThrows(InvalidYearException.class, () -> holidayApiService.isHoliday("NL", "1900-01-01", null));
+        assertThrows(InvalidCountryException.class, () -> holidayApiService.isHoliday("XX", "2024-04-27", null));
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testAddBusinessDays_skipsWeekendsAndHolidaysAcrossYears() {
+        when(holidayRepository.getHolidayIndex("NL", 2024)).thenReturn(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"),
+                holiday(LocalDate.of(2024, 12, 26), "St. Stephen's Day", "Tweede Kerstdag", "NL"))));
+        when(holidayRepository.getHolidayIndex("NL", 2025)).thenReturn(index("NL", 2025, List.of(
+                holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"))));
+
+        assertEquals(new BusinessDayResponse("NL", LocalDate.of(2024, 12, 24), 1, LocalDate.of(2024, 12, 27)),
+                holidayApiService.addBusinessDays("NL", "2024-12-24", 1));
+        assertEquals(LocalDate.of(2024, 12, 30), holidayApiService.addBusinessDays("NL", "2024-12-24", 2).businessDay());
+        assertEquals(LocalDate.of(2025, 1, 2), holidayApiService.addBusinessDays("NL", "2024-12-24", 4).businessDay());
+        assertEquals(LocalDate.of(2024, 12, 27), holidayApiService.addBusinessDays("NL", "2025-01-02", -3).businessDay());
+        assertEquals(LocalDate.of(2024, 12, 27), holidayApiService.getNextBusinessDay("NL", "2024-12-24").businessDay());
+    }
+
+    @Test
+    public void testAddBusinessDays_zeroDaysIsTheDateItself() {
+        assertEquals(LocalDate.of(2024, 12, 25), holidayApiService.addBusinessDays("NL", "2024-12-25", 0).businessDay());
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testCountBusinessDays_acrossYears() {
+        when(holidayRepository.getHolidayIndex("NL", 2024)).thenReturn(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"),
+                holiday(LocalDate.of(2024, 12, 26), "St. Stephen's Day", "Tweede Kerstdag", "NL"))));
+        when(holidayRepository.getHolidayIndex("NL", 2025)).thenReturn(index("NL", 2025, List.of(
+                holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"))));
+
+        assertEquals(new BusinessDayCountResponse("NL", LocalDate.of(2024, 12, 23), LocalDate.of(2025, 1, 3), 7),
+                holidayApiService.countBusinessDays("NL", "2024-12-23", "2025-01-03"));
+        assertEquals(0, holidayApiService.countBusinessDays("NL", "2024-12-25", "2024-12-26").businessDays());
+    }
+
+    @Test
+    public void testCountBusinessDays_usesTheCachedIndexesWithoutValidating() {
+        when(holidayRepository.getCachedHolidayIndex("DE", 2024)).thenReturn(index("DE", 2024, List.of(
+                holiday(LocalDate.of(2024, 10, 3), "German Unity Day", "Tag der Deutschen Einheit", "DE"))));
+
+        assertEquals(4, holidayApiService.countBusinessDays("DE", "2024-09-30", "2024-10-06").businessDays());
+
+        verify(holidayRepository, never()).getAvailableCountries();
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testBusinessDays_useTheCountrysWeekend() {
+        when(holidayRepository.getAvailableCountries()).thenReturn(Set.of("EG"));
+        when(holidayRepository.getHolidayIndex("EG", 2024)).thenReturn(index("EG", 2024, List.of()));
+
+        assertEquals(5, holidayApiService.countBusinessDays("EG", "2024-12-22", "2024-12-28").businessDays());
+        assertEquals(LocalDate.of(2024, 12, 29), holidayApiService.addBusinessDays("EG", "2024-12-26", 1).businessDay());
+    }
+
+    @Test
+    public void testBusinessDays_invalidRequest() {
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.addBusinessDays("NL", "2024-12-24", 1001));
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.addBusinessDays("NL", "24-12-2024", 1));
+        assertThrows(InvalidYearException.class, () -> holidayApiService.addBusinessDays("NL", "1900-01-01", 1));
+        assertThrows(InvalidCountryException.class, () -> holidayApiService.addBusinessDays("XX", "2024-12-24", 1));
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.countBusinessDays("NL", "2024-12-24", "2024-12-23"));
+        assertThrows(InvalidYearException.class,
+                () -> holidayApiService.countBusinessDays("NL", "2024-12-24", "2076-01-01"));
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testGetCelebratedHolidays_invalidCount() {
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.getCelebratedHolidays("US", 0));
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.getUpcomingHolidays("US", 51));
+        verifyNoInteractions(holidayRepository);
+    }
+
+    @Test
+    public void testAddHolidays_splitsTheYearAtTheCurrentDate() {
+        HolidayIndex holidays = index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"),
+                holiday(LocalDate.of(2024, 4, 27), "King's Day", "Koningsdag", "NL"),
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL")));
+        List<HolidayDetails> celebrated = new ArrayList<>();
+        List<HolidayDetails> upcoming = new ArrayList<>();
+
+        assertFalse(HolidayApiService.addHolidays(holidays, LocalDate.of(2024, 4, 27), 3, false, celebrated));
+        assertTrue(HolidayApiService.addHolidays(holidays, LocalDate.of(2024, 4, 27), 2, true, upcoming));
+
+        assertEquals(List.of("New Year's Day"), celebrated.stream().map(HolidayDetails::name).toList());
+        assertEquals(List.of("King's Day", "Christmas Day"), upcoming.stream().map(HolidayDetails::name).toList());
+    }
+
+    @Test
+    public void testWalkYears_staysWithinTheYearsNagerCovers() {
+        assertArrayEquals(new int[] {2024, 2023, 2022, 2021}, HolidayApiService.walkYears(2024, 3, false));
+        assertArrayEquals(new int[] {2074, 2075}, HolidayApiService.walkYears(2074, 3, true));
+    }
+
     @Test
     public void testGetLastThreeCelebratedHolidays_noFutureHolidays() {
         String countryCode = "US";
@@ -72,7 +320,8 @@ public class HolidayApiServiceTest {
                 holiday(LocalDate.of(2076, 1, 1), "Future Holiday", "Toekomstige", "US")
         );
 
-        when(holidayApiService.getHolidaysForYear(eq(countryCode), anyInt())).thenReturn(holidays);
+        when(holidayRepository.getHolidayIndex(eq(countryCode), anyInt()))
+                .thenAnswer(invocation -> index(countryCode, invocation.getArgument(1), holidays));
 
         assertThrows(DataNotFoundException.class,
                 () -> holidayApiService.getLastThreeCelebratedHolidays(countryCode));
@@ -92,8 +341,8 @@ public class HolidayApiServiceTest {
                 holiday(LocalDate.of(year, 5, 1), "Labour Day", "Dag van de Arbeid", "NL") // Wednesday
         );
 
-        when(holidayApiService.getHolidaysForYear("US", year)).thenReturn(usHolidays);
-        when(holidayApiService.getHolidaysForYear("NL", year)).thenReturn(nlHolidays);
+        when(holidayRepository.getHolidayIndex("US", year)).thenReturn(index("US", year, usHolidays));
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, nlHolidays));
 
         WeekdayHolidaysResponse response = holidayApiService.getWeekdayHolidaysCount(year, countries);
 
@@ -114,6 +363,17 @@ public class HolidayApiServiceTest {
         assertEquals("Invalid country code(s): XX. Please use valid ISO 3166-1 alpha-2 country codes.", invalidCountryException.getMessage());
     }
 
+    @Test
+    public void testGetWeekdayHolidaysCount_collectsAllInvalidCountries() {
+        when(holidayRepository.getHolidayIndex("US", 2024)).thenReturn(index("US", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year", "Nieuwjaar", "US"))));
+
+        InvalidCountryException invalidCountryException = assertThrows(InvalidCountryException.class,
+                () -> holidayApiService.getWeekdayHolidaysCount(2024, List.of("XX", "US", "YY")));
+
+        assertEquals("Invalid country code(s): XX, YY. Please use valid ISO 3166-1 alpha-2 country codes.", invalidCountryException.getMessage());
+    }
+
     @Test
     public void testGetWeekdayHolidaysCount_invalidYear() {
         InvalidYearException invalidYearException = assertThrows(InvalidYearException.class,
@@ -135,8 +395,8 @@ public class HolidayApiServiceTest {
                 holiday(commonDate, "Nieuwjaar", "Nieuwjaar", "NL")
         );
 
-        when(holidayApiService.getHolidaysForYear(countryOne, year)).thenReturn(usHolidays);
-        when(holidayApiService.getHolidaysForYear(countryTwo, year)).thenReturn(nlHolidays);
+        when(holidayRepository.getHolidayIndex(countryOne, year)).thenReturn(index(countryOne, year, usHolidays));
+        when(holidayRepository.getHolidayIndex(countryTwo, year)).thenReturn(index(countryTwo, year, nlHolidays));
 
         CommonHolidaysResponse response = holidayApiService.getCommonHolidays(year, countryOne, countryTwo);
 
@@ -144,17 +404,362 @@ public class HolidayApiServiceTest {
         assertEquals(commonDate, response.getCommonHolidays().getFirst().date());
     }
 
+    @Test
+    public void testGetCommonHolidays_listsADateSharedBySeveralHolidaysOnce() {
+        int year = 2024;
+        LocalDate commonDate = LocalDate.of(year, 12, 26);
+        when(holidayRepository.getHolidayIndex("US", year)).thenReturn(index("US", year, List.of(
+                holiday(commonDate, "Day After Christmas", "Day After Christmas", "US"))));
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of(
+                holiday(commonDate, "St. Stephen's Day", "Tweede Kerstdag", "NL"),
+                holiday(commonDate, "Boxing Day", "Boxing Day", "NL"))));
+
+        CommonHolidaysResponse response = holidayApiService.getCommonHolidays(year, "US", "NL");
+
+        assertEquals(1, response.getCommonHolidays().size());
+        assertEquals("Tweede Kerstdag", response.getCommonHolidays().getFirst().localNameCountryTwo());
+    }
+
     @Test
     public void testGetCommonHolidays_none() {
         int year = 2024;
         String countryOne = "US";
         String countryTwo = "NL";
 
-        when(holidayApiService.getHolidaysForYear(anyString(), eq(year))).thenReturn(Collections.emptyList());
+        when(holidayRepository.getHolidayIndex(anyString(), eq(year)))
+                .thenAnswer(invocation -> index(invocation.getArgument(0), year, Collections.emptyList()));
 
         CommonHolidaysResponse response = holidayApiService.getCommonHolidays(year, countryOne, countryTwo);
 
         assertTrue(response.getCommonHolidays().isEmpty());
         assertEquals("No common holidays found between US and NL for year 2024", response.getMessage());
     }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_countsEveryHolidaySharingADate() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndex("US", year)).thenReturn(index("US", year, List.of(
+                holiday(LocalDate.of(year, 2, 12), "Lincoln's Birthday", "Lincoln's Birthday", "US"),
+                holiday(LocalDate.of(year, 2, 12), "Lincoln's Birthday", "Lincoln's Birthday", "US"),
+                holiday(LocalDate.of(year, 2, 19), "Presidents Day", "Washington's Birthday", "US"))));
+
+        WeekdayHolidaysResponse response = holidayApiService.getWeekdayHolidaysCount(year, List.of("US"));
+
+        assertEquals(3, response.countries().getFirst().weekdayHolidaysCount());
+    }
+
+    @Test
+    public void testGetBatch_answersEveryQueryInOrder() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndex("US", year)).thenReturn(index("US", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", "US"),
+                holiday(LocalDate.of(year, 7, 4), "Independence Day", "Independence Day", "US"))));
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"))));
+
+        List<BatchResult> results = holidayApiService.getBatch(List.of(
+                new BatchQuery("weekdayCount", null, year, List.of("US", "NL"), null, null),
+                new BatchQuery("common", null, year, null, "US", "NL"),
+                new BatchQuery("common", null, year, null, "US", "XX"),
+                new BatchQuery("weekdayCount", null, null, List.of("US"), null, null),
+                new BatchQuery("holidays", "US", year, null, null, null)));
+
+        assertEquals(List.of(200, 200, 400, 400, 400), results.stream().map(BatchResult::status).toList());
+        assertEquals(2, ((WeekdayHolidaysResponse) results.get(0).body()).countries().size());
+        assertEquals(1, ((CommonHolidaysResponse) results.get(1).body()).getCommonHolidays().size());
+        assertEquals("Invalid Country", ((Map<?, ?>) results.get(2).body()).get("error"));
+        assertEquals("Invalid Request", ((Map<?, ?>) results.get(4).body()).get("error"));
+        // XX is not a known country, so it is never looked up
+        verify(holidayRepository, never()).getHolidayIndex(eq("XX"), anyInt());
+    }
+
+    @Test
+    public void testBatchCountryYears_dedupesTheLookupsOfTheBatch() {
+        List<BatchQuery> queries = List.of(
+                new BatchQuery("lastThree", "us", null, null, null, null),
+                new BatchQuery("weekdayCount", null, 2025, List.of("US", "NL", "XX"), null, null),
+                new BatchQuery("common", null, 2025, null, "NL", "US"),
+                new BatchQuery("common", null, 1900, null, "NL", "US"),
+                new BatchQuery(null, "US", 2025, null, null, null));
+
+        assertEquals(List.of(new HolidayApiService.CountryYear("US", 2025), new HolidayApiService.CountryYear("NL", 2025)),
+                HolidayApiService.batchCountryYears(queries, Set.of("US", "NL"), 2025));
+    }
+
+    @Test
+    public void testBatchPreviousYears_onlyForCountriesWithFewerThanThreeCelebratedHolidays() {
+        LocalDate today = LocalDate.of(2025, 6, 1);
+        Map<String, HolidayIndex> currentYear = Map.of(
+                "US", index("US", 2025, List.of(
+                        holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "New Year's Day", "US"),
+                        holiday(LocalDate.of(2025, 1, 20), "Martin Luther King, Jr. Day", "Martin Luther King, Jr. Day", "US"),
+                        holiday(LocalDate.of(2025, 5, 26), "Memorial Day", "Memorial Day", "US"))),
+                "NL", index("NL", 2025, List.of(
+                        holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"),
+                        holiday(LocalDate.of(2025, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"))));
+        List<BatchQuery> queries = List.of(
+                new BatchQuery("lastThree", "us", null, null, null, null),
+                new BatchQuery("lastThree", "nl", null, null, null, null),
+                new BatchQuery("lastThree", "XX", null, null, null, null),
+                new BatchQuery("weekdayCount", null, 2025, List.of("US", "NL"), null, null));
+
+        assertEquals(List.of(new HolidayApiService.CountryYear("NL", 2024)),
+                HolidayApiService.batchPreviousYears(queries, countryCode -> currentYear.get(countryCode.toUpperCase()), today));
+    }
+
+    @Test
+    public void testGetBatch_loadsThePreviousYearOnlyForLastThreeQueriesThatNeedIt() {
+        int year = LocalDate.now().getYear();
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of()));
+        when(holidayRepository.getCachedHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of()));
+        when(holidayRepository.getHolidayIndex("NL", year - 1)).thenReturn(index("NL", year - 1, List.of(
+                holiday(LocalDate.of(year - 1, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"),
+                holiday(LocalDate.of(year - 1, 12, 26), "Second Day of Christmas", "Tweede Kerstdag", "NL"),
+                holiday(LocalDate.of(year - 1, 4, 27), "King's Day", "Koningsdag", "NL"))));
+
+        List<BatchResult> results = holidayApiService.getBatch(List.of(
+                new BatchQuery("lastThree", "NL", null, null, null, null)));
+
+        assertEquals(200, results.getFirst().status());
+        assertEquals(3, ((LastThreeHolidaysResponse) results.getFirst().body()).holidays().size());
+        verify(holidayRepository).getCachedHolidayIndex("NL", year);
+        verify(holidayRepository, never()).getHolidayIndex("NL", year - 2);
+    }
+
+    @Test
+    public void testGetBatch_invalidBatch() {
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.getBatch(List.of()));
+        assertThrows(InvalidRequestException.class, () -> holidayApiService.getBatch(Collections.nCopies(101,
+                new BatchQuery("lastThree", "US", null, null, null, null))));
+        verifyNoInteractions(holidayRepository);
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCount_yieldsCountriesAsTheyAreLoaded() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndex("US", year)).thenAnswer(invocation -> {
+            Thread.sleep(200); // a slow NAGER call
+            return index("US", year, List.of(holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", "US")));
+        });
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of()));
+
+        assertEquals(List.of(new CountryHolidayCount("NL", 0), new CountryHolidayCount("US", 1)),
+                holidayApiService.streamWeekdayHolidaysCount(year, List.of("US", "NL")).toList());
+    }
+
+    @Test
+    public void testStreamingVariants_validateBeforeStreaming() {
+        assertThrows(InvalidCountryException.class,
+                () -> holidayApiService.streamWeekdayHolidaysCount(2024, List.of("US", "XX")));
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.streamCommonHolidays(2025, 2024, "US", "NL"));
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testStreamCommonHolidays_yieldsEveryYear() {
+        when(holidayRepository.getHolidayIndex(anyString(), anyInt())).thenAnswer(invocation -> {
+            int year = invocation.getArgument(1);
+            return index(invocation.getArgument(0), year, List.of(
+                    holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", invocation.getArgument(0))));
+        });
+
+        List<CommonHolidaysForYear> years = holidayApiService.streamCommonHolidays(2022, 2024, "US", "NL").toList();
+
+        assertEquals(Set.of(2022, 2023, 2024), years.stream().map(CommonHolidaysForYear::year).collect(Collectors.toSet()));
+        assertTrue(years.stream().allMatch(year -> year.commonHolidays().size() == 1));
+    }
+
+    @Test
+    public void testGetCommonHolidays_sortedByDate() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndex("US", year)).thenReturn(index("US", year, List.of(
+                holiday(LocalDate.of(year, 12, 25), "Christmas Day", "Christmas Day", "US"),
+                holiday(LocalDate.of(year, 7, 4), "Independence Day", "Independence Day", "US"),
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", "US"))));
+        when(holidayRepository.getHolidayIndex("NL", year)).thenReturn(index("NL", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL"),
+                holiday(LocalDate.of(year, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"))));
+
+        CommonHolidaysResponse response = holidayApiService.getCommonHolidays(year, "US", "NL");
+
+        assertEquals(List.of(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 25)),
+                response.getCommonHolidays().stream().map(h -> h.date()).toList());
+        assertEquals("Eerste Kerstdag", response.getCommonHolidays().get(1).localNameCountryTwo());
+    }
+
+    @Test
+    public void testGetCommonHolidaysAcross_sharedByEveryCountry() {
+        int year = 2024;
+        stubHolidays(year, "NL", LocalDate.of(year, 1, 1), LocalDate.of(year, 4, 27), LocalDate.of(year, 12, 25));
+        stubHolidays(year, "DE", LocalDate.of(year, 1, 1), LocalDate.of(year, 10, 3), LocalDate.of(year, 12, 25));
+        stubHolidays(year, "BE", LocalDate.of(year, 1, 1), LocalDate.of(year, 7, 21));
+
+        CommonHolidaysAcrossResponse response =
+                holidayApiService.getCommonHolidays(year, List.of("nl", "DE", "BE", "NL"), null);
+
+        assertEquals(List.of("NL", "DE", "BE"), response.countries());
+        assertEquals(3, response.minCountries());
+        assertEquals(1, response.commonHolidays().size());
+        SharedHoliday newYear = response.commonHolidays().getFirst();
+        assertEquals(LocalDate.of(year, 1, 1), newYear.date());
+        assertEquals(List.of("NL", "DE", "BE"), newYear.countries());
+        assertEquals("NL local", newYear.localNames().get("NL"));
+        assertNull(response.message());
+    }
+
+    @Test
+    public void testGetCommonHolidaysAcross_sharedByAtLeastKCountries() {
+        int year = 2024;
+        stubHolidays(year, "NL", LocalDate.of(year, 1, 1), LocalDate.of(year, 4, 27), LocalDate.of(year, 12, 25));
+        stubHolidays(year, "DE", LocalDate.of(year, 1, 1), LocalDate.of(year, 10, 3), LocalDate.of(year, 12, 25));
+        stubHolidays(year, "BE", LocalDate.of(year, 1, 1), LocalDate.of(year, 7, 21));
+
+        CommonHolidaysAcrossResponse response =
+                holidayApiService.getCommonHolidays(year, List.of("NL", "DE", "BE"), 2);
+
+        assertEquals(List.of(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 25)),
+                response.commonHolidays().stream().map(SharedHoliday::date).toList());
+        assertEquals(List.of("NL", "DE"), response.commonHolidays().get(1).countries());
+    }
+
+    @Test
+    public void testGetCommonHolidaysAcross_none() {
+        int year = 2024;
+        stubHolidays(year, "NL", LocalDate.of(year, 4, 27));
+        stubHolidays(year, "DE", LocalDate.of(year, 10, 3));
+
+        CommonHolidaysAcrossResponse response = holidayApiService.getCommonHolidays(year, List.of("NL", "DE"), null);
+
+        assertTrue(response.commonHolidays().isEmpty());
+        assertEquals("No holidays shared by at least 2 of NL, DE for year 2024", response.message());
+    }
+
+    @Test
+    public void testGetCommonHolidaysAcross_invalidRequests() {
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.getCommonHolidays(2024, List.of("NL", "nl"), null));
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.getCommonHolidays(2024, List.of("NL", "DE"), 3));
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.getCommonHolidays(2024, List.of("NL", "DE"), 1));
+
+        InvalidCountryException invalidCountryException = assertThrows(InvalidCountryException.class,
+                () -> holidayApiService.getCommonHolidays(2024, List.of("XX", "NL", "YY"), null));
+        assertEquals("Invalid country code(s): XX, YY. Please use valid ISO 3166-1 alpha-2 country codes.",
+                invalidCountryException.getMessage());
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_yieldsEveryYearInOrder() {
+        stubHolidays(2023, "NL", LocalDate.of(2023, 1, 2));
+        stubHolidays(2023, "DE", LocalDate.of(2023, 1, 2), LocalDate.of(2023, 10, 3));
+        stubHolidays(2024, "NL", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 27));
+        stubHolidays(2024, "DE", LocalDate.of(2024, 1, 1));
+
+        List<WeekdayHolidaysForYear> response =
+                holidayApiService.getWeekdayHolidaysCount(2023, 2024, List.of("NL", "DE")).toList();
+
+        assertEquals(List.of(2023, 2024), response.stream().map(WeekdayHolidaysForYear::year).toList());
+        assertEquals("DE", response.get(0).countries().getFirst().countryCode());
+        assertEquals(2, response.get(0).countries().getFirst().weekdayHolidaysCount());
+        assertEquals("NL", response.get(1).countries().getFirst().countryCode());
+        assertEquals(1, response.get(1).countries().getFirst().weekdayHolidaysCount()); // 27 April 2024 is a Saturday
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_validatesBeforeLoading() {
+        assertThrows(InvalidRequestException.class,
+                () -> holidayApiService.getWeekdayHolidaysCount(2025, 2024, List.of("NL")));
+        assertThrows(InvalidYearException.class,
+                () -> holidayApiService.getWeekdayHolidaysCount(2024, 2076, List.of("NL")));
+
+        InvalidCountryException invalidCountryException = assertThrows(InvalidCountryException.class,
+                () -> holidayApiService.getWeekdayHolidaysCount(2020, 2030, List.of("XX", "NL", "YY")));
+        assertEquals("Invalid country code(s): XX, YY. Please use valid ISO 3166-1 alpha-2 country codes.",
+                invalidCountryException.getMessage());
+        verify(holidayRepository, never()).getHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_reportsAFailingFirstYearBeforeStreaming() {
+        when(holidayRepository.getHolidayIndex(eq("NL"), anyInt())).thenAnswer(invocation -> {
+            throw new UpstreamUnavailableException("NAGER API unavailable: circuit breaker is open");
+        });
+
+        assertThrows(UpstreamUnavailableException.class,
+                () -> holidayApiService.getWeekdayHolidaysCount(2020, 2030, List.of("NL")));
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_flagsStaleDataLoadedBeforeStreaming() {
+        when(holidayRepository.getHolidayIndex("NL", 2023)).thenReturn(index("NL", 2023,
+                List.of(holiday(LocalDate.of(2023, 1, 2), "New Year's Day", "Nieuwjaar", "NL"))).asStale());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try (Stream<WeekdayHolidaysForYear> response =
+                     holidayApiService.getWeekdayHolidaysCount(2023, 2023, List.of("NL"))) {
+            assertTrue(StaleDataMarker.isMarked());
+            assertEquals(1, response.count());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_closingTheStreamCancelsPendingLoads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(holidayRepository.getHolidayIndex(eq("NL"), anyInt())).thenAnswer(invocation -> {
+            int year = invocation.getArgument(1);
+            if (year > 2020) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return index("NL", year, List.of());
+        });
+
+        Stream<WeekdayHolidaysForYear> response = holidayApiService.getWeekdayHolidaysCount(2020, 2030, List.of("NL"));
+        response.close();
+        release.countDown();
+
+        // 2020 and at most the 4 loads that already held a fan-out permit, instead of all 11 years
+        verify(holidayRepository, after(200).atMost(5)).getHolidayIndex(eq("NL"), anyInt());
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCountForYears_closingTheStreamCancelsPendingLoads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(holidayRepository.getHolidayIndex(eq("NL"), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return index("NL", invocation.getArgument(1), List.of());
+        });
+
+        Stream<WeekdayHolidaysForYear> response =
+                holidayApiService.streamWeekdayHolidaysCount(2020, 2030, List.of("NL"));
+        response.close();
+        release.countDown();
+
+        // only the 4 loads that already held a fan-out permit, instead of all 11 years
+        verify(holidayRepository, after(200).atMost(4)).getHolidayIndex(eq("NL"), anyInt());
+    }
+
+    @Test
+    public void testGetCommonHolidaysForYears() {
+        stubHolidays(2023, "NL", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 25));
+        stubHolidays(2023, "DE", LocalDate.of(2023, 12, 25));
+        stubHolidays(2024, "NL", LocalDate.of(2024, 4, 27));
+        stubHolidays(2024, "DE", LocalDate.of(2024, 10, 3));
+
+        List<CommonHolidaysForYear> response = holidayApiService.getCommonHolidays(2023, 2024, "NL", "DE").toList();
+
+        assertEquals(2, response.size());
+        assertEquals(List.of(LocalDate.of(2023, 12, 25)),
+                response.get(0).commonHolidays().stream().map(CommonHoliday::date).toList());
+        assertTrue(response.get(1).commonHolidays().isEmpty());
+    }
+
+    private void stubHolidays(int year, String countryCode, LocalDate... dates) {
+        List<Holiday> holidays = Arrays.stream(dates)
+                .map(date -> holiday(date, countryCode + " name", countryCode + " local", countryCode))
+                .toList();
+        when(holidayRepository.getHolidayIndex(countryCode, year)).thenReturn(index(countryCode, year, holidays));
+    }
 }
@@ -0,0 +1,80 @@
+package com.holiday.service;
+
+import com.holiday.exception.HolidayServiceException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.repository.HolidayRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HolidayCacheWarmUp class.
+ * This class tests which country and year entries are preloaded and that failures do not stop the warm-up.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HolidayCacheWarmUpTest {
+
+    @Mock
+    private HolidayRepository holidayRepository;
+    private HolidayCacheWarmUp warmUp;
+    private final int currentYear = Year.now().getValue();
+
+    @BeforeEach
+    public void setUp() {
+        warmUp = new HolidayCacheWarmUp(holidayRepository, 1, 1, 4);
+        when(holidayRepository.getAvailableCountries()).thenReturn(Set.of("US", "NL"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        warmUp.destroy();
+    }
+
+    @Test
+    public void testWarmUpLoadsEveryCountryAcrossTheYearWindow() {
+        when(holidayRepository.getHolidayIndex(anyString(), anyInt())).thenReturn(HolidayIndex.of("US", currentYear, List.of()));
+
+        warmUp.run(null);
+
+        for (String countryCode : List.of("US", "NL")) {
+            for (int year = currentYear - 1; year <= currentYear + 1; year++) {
+                verify(holidayRepository).getHolidayIndex(countryCode, year);
+            }
+        }
+        verify(holidayRepository, never()).refreshHolidayIndex(anyString(), anyInt());
+    }
+
+    @Test
+    public void testScheduledRefreshReloadsCurrentAndFutureYears() {
+        when(holidayRepository.getHolidayIndex(anyString(), anyInt())).thenReturn(HolidayIndex.of("US", currentYear, List.of()));
+        when(holidayRepository.refreshHolidayIndex(anyString(), anyInt())).thenReturn(HolidayIndex.of("US", currentYear, List.of()));
+
+        warmUp.refresh();
+
+        verify(holidayRepository).getHolidayIndex("US", currentYear - 1);
+        verify(holidayRepository).refreshHolidayIndex("US", currentYear);
+        verify(holidayRepository).refreshHolidayIndex("US", currentYear + 1);
+        verify(holidayRepository, never()).getHolidayIndex("US", currentYear);
+    }
+
+    @Test
+    public void testWarmUpFailuresDoNotStopStartup() {
+        when(holidayRepository.getHolidayIndex(anyString(), anyInt()))
+                .thenThrow(new HolidayServiceException("Error fetching holiday data: 503"));
+
+        assertDoesNotThrow(() -> warmUp.run(null));
+        verify(holidayRepository, times(6)).getHolidayIndex(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,83 @@
+package com.holiday.service;
+
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.Holiday;
+import com.holiday.model.HolidayDetails;
+import com.holiday.model.LastThreeHolidaysResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the LastThreeHolidaysCache class.
+ * This class tests until when a serialized /lastThree response stays valid and that stale responses are not cached.
+ */
+public class LastThreeHolidaysCacheTest {
+
+    private final LastThreeHolidaysCache cache =
+            new LastThreeHolidaysCache(asyncCacheManager(), Jackson2ObjectMapperBuilder.json().build());
+
+    private static CaffeineCacheManager asyncCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        return cacheManager;
+    }
+
+    private static HolidayIndex holidays(LocalDate... dates) {
+        return HolidayIndex.of("NL", 2024, List.of(dates).stream()
+                .map(date -> new Holiday(date, "Feestdag", "Holiday", "NL", null, null, List.of("Public")))
+                .toList());
+    }
+
+    private static LastThreeHolidaysResponse response(HolidayIndex holidays) {
+        return new LastThreeHolidaysResponse("NL", List.of(new HolidayDetails(holidays.dateAt(0), holidays.nameAt(0))));
+    }
+
+    @Test
+    public void testValidUntilTheDayAfterTheNextHoliday() {
+        HolidayIndex holidays = holidays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 27), LocalDate.of(2024, 12, 25));
+
+        assertEquals(LocalDate.of(2024, 4, 28), LastThreeHolidaysCache.validUntil(List.of(holidays), LocalDate.of(2024, 3, 1)));
+        assertEquals(LocalDate.of(2024, 4, 28), LastThreeHolidaysCache.validUntil(List.of(holidays), LocalDate.of(2024, 4, 27)));
+        assertEquals(LocalDate.of(2024, 12, 26), LastThreeHolidaysCache.validUntil(List.of(holidays), LocalDate.of(2024, 4, 28)));
+        assertEquals(LocalDate.of(2025, 1, 1), LastThreeHolidaysCache.validUntil(List.of(holidays), LocalDate.of(2024, 12, 26)));
+    }
+
+    @Test
+    public void testValidUntilLooksAtTheCurrentYearOnly() {
+        HolidayIndex lastYear = HolidayIndex.of("NL", 2023, List.of(
+                new Holiday(LocalDate.of(2023, 12, 25), "Kerstmis", "Christmas Day", "NL", null, null, null)));
+        HolidayIndex currentYear = holidays(LocalDate.of(2024, 4, 27));
+
+        assertEquals(LocalDate.of(2024, 4, 28),
+                LastThreeHolidaysCache.validUntil(List.of(currentYear, lastYear), LocalDate.of(2024, 1, 2)));
+        assertEquals(LocalDate.of(2025, 1, 1),
+                LastThreeHolidaysCache.validUntil(List.of(lastYear), LocalDate.of(2024, 1, 2)));
+    }
+
+    @Test
+    public void testResponseIsServedUntilItIsNoLongerValid() {
+        HolidayIndex holidays = holidays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 27));
+
+        byte[] body = cache.put(response(holidays), List.of(holidays), LocalDate.of(2024, 3, 1));
+
+        assertArrayEquals(body, cache.get("nl", LocalDate.of(2024, 4, 27)).orElseThrow());
+        assertTrue(cache.get("NL", LocalDate.of(2024, 4, 28)).isEmpty());
+    }
+
+    @Test
+    public void testStaleResponsesAreNotCached() {
+        HolidayIndex holidays = holidays(LocalDate.of(2024, 1, 1)).asStale();
+
+        cache.put(response(holidays), List.of(holidays), LocalDate.of(2024, 3, 1));
+
+        assertTrue(cache.get("NL", LocalDate.of(2024, 3, 1)).isEmpty());
+    }
+}
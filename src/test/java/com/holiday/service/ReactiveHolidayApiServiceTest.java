@@ -0,0 +1,349 @@
+package com.holiday.service;
+
+import com.holiday.config.BusinessDayProperties;
+import com.holiday.exception.DataNotFoundException;
+import com.holiday.exception.InvalidCountryException;
+import com.holiday.exception.InvalidRequestException;
+import com.holiday.exception.InvalidYearException;
+import com.holiday.index.HolidayIndex;
+import com.holiday.model.BatchQuery;
+import com.holiday.model.BatchResult;
+import com.holiday.model.CountryHolidayCount;
+import com.holiday.model.Holiday;
+import com.holiday.model.HolidayDetails;
+import com.holiday.repository.HolidayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the ReactiveHolidayApiService class.
+ * This class tests that the reactive endpoints produce the same results and errors as the blocking service.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveHolidayApiServiceTest {
+
+    @Mock
+    private HolidayRepository holidayRepository;
+    private ReactiveHolidayApiService holidayApiService;
+
+    private static Holiday holiday(LocalDate date, String name, String localName, String countryCode) {
+        return new Holiday(date, localName, name, countryCode, null, null, List.of("Public"));
+    }
+
+    private static HolidayIndex index(String countryCode, int year, List<Holiday> holidays) {
+        return HolidayIndex.of(countryCode, year, holidays);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        holidayApiService = new ReactiveHolidayApiService(holidayRepository,
+                new LastThreeHolidaysCache(new ConcurrentMapCacheManager(), Jackson2ObjectMapperBuilder.json().build()),
+                new BusinessDayProperties(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), Map.of()), 4);
+        lenient().when(holidayRepository.getAvailableCountriesAsync()).thenReturn(Mono.just(Set.of("US", "NL")));
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidays_success() {
+        LocalDate today = LocalDate.now();
+        List<Holiday> holidays = List.of(
+                holiday(today.minusDays(1), "New Year's Day", "Nieuwjaar", "US"),
+                holiday(today.minusDays(10), "Christmas Day", "Kerstmis", "US"),
+                holiday(today.minusDays(20), "Thanksgiving Day", "Thanksgiving", "US"),
+                holiday(today.minusDays(30), "Older Holiday", "Ouder", "US"),
+                holiday(today.plusDays(5), "Future Holiday", "Toekomstige", "US")
+        );
+        when(holidayRepository.getHolidayIndexAsync(eq("US"), anyInt()))
+                .thenAnswer(invocation -> Mono.just(index("US", invocation.getArgument(1), holidays)));
+
+        StepVerifier.create(holidayApiService.getLastThreeCelebratedHolidays("US"))
+                .assertNext(response -> {
+                    assertEquals("US", response.country());
+                    assertEquals(3, response.holidays().size());
+                    assertEquals("New Year's Day", response.holidays().getFirst().name());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetCommonHolidays_flagsTheRequestContextWhenDataIsStale() {
+        when(holidayRepository.getHolidayIndexAsync("US", 2024)).thenReturn(Mono.just(index("US", 2024, List.of())));
+        when(holidayRepository.getHolidayIndexAsync("NL", 2024)).thenReturn(Mono.just(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year's Day", "Nieuwjaar", "NL"))).asStale()));
+        AtomicBoolean stale = new AtomicBoolean();
+
+        StepVerifier.create(holidayApiService.getCommonHolidays(2024, "US", "NL")
+                        .contextWrite(StaleDataMarker.context(stale)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertTrue(stale.get());
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidaysJson_isServedFromTheCache() {
+        LocalDate today = LocalDate.now();
+        List<Holiday> holidays = List.of(holiday(today.minusDays(1), "New Year's Day", "Nieuwjaar", "US"));
+        when(holidayRepository.getHolidayIndexAsync(eq("US"), anyInt()))
+                .thenAnswer(invocation -> Mono.just(index("US", invocation.getArgument(1), holidays)));
+
+        byte[] response = holidayApiService.getLastThreeCelebratedHolidaysJson("US").block();
+        assertTrue(new String(response, StandardCharsets.UTF_8).contains("\"name\":\"New Year's Day\""));
+        StepVerifier.create(holidayApiService.getLastThreeCelebratedHolidaysJson("us"))
+                .expectNext(response)
+                .verifyComplete();
+
+        verify(holidayRepository, times(1)).getHolidayIndexAsync("US", today.getYear());
+    }
+
+    @Test
+    public void testGetCelebratedHolidays_loadsEarlierYearsOneAtATime() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayRepository.getHolidayIndexAsync("US", currentYear))
+                .thenReturn(Mono.just(index("US", currentYear, List.of())));
+        when(holidayRepository.getHolidayIndexAsync("US", currentYear - 1)).thenReturn(Mono.just(index("US", currentYear - 1,
+                List.of(holiday(LocalDate.of(currentYear - 1, 12, 25), "Christmas Day", "Christmas Day", "US"),
+                        holiday(LocalDate.of(currentYear - 1, 12, 31), "New Year's Eve", "New Year's Eve", "US")))));
+
+        StepVerifier.create(holidayApiService.getCelebratedHolidays("US", 2))
+                .assertNext(response -> assertEquals(List.of("New Year's Eve", "Christmas Day"),
+                        response.holidays().stream().map(HolidayDetails::name).toList()))
+                .verifyComplete();
+
+        verify(holidayRepository, never()).getHolidayIndexAsync("US", currentYear - 2);
+    }
+
+    @Test
+    public void testIsHoliday() {
+        when(holidayRepository.getHolidayIndexAsync("US", 2024)).thenReturn(Mono.just(index("US", 2024, List.of(
+                holiday(LocalDate.of(2024, 7, 4), "Independence Day", "Independence Day", "US")))));
+
+        StepVerifier.create(holidayApiService.isHoliday("US", "2024-07-04", "Public"))
+                .assertNext(response -> {
+                    assertTrue(response.holiday());
+                    assertEquals("Independence Day", response.name());
+                })
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.isHoliday("US", "2024-7-4", null))
+                .expectError(InvalidRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void testAddBusinessDays_loadsTheYearsItWalksInto() {
+        when(holidayRepository.getHolidayIndexAsync("NL", 2024)).thenReturn(Mono.just(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"),
+                holiday(LocalDate.of(2024, 12, 26), "St. Stephen's Day", "Tweede Kerstdag", "NL")))));
+        when(holidayRepository.getHolidayIndexAsync("NL", 2025)).thenReturn(Mono.just(index("NL", 2025, List.of(
+                holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL")))));
+
+        StepVerifier.create(holidayApiService.addBusinessDays("NL", "2024-12-24", 4))
+                .assertNext(response -> assertEquals(LocalDate.of(2025, 1, 2), response.businessDay()))
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.getNextBusinessDay("NL", "2024-12-24"))
+                .assertNext(response -> assertEquals(LocalDate.of(2024, 12, 27), response.businessDay()))
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.addBusinessDays("NL", "2024-12-24", 1001))
+                .expectError(InvalidRequestException.class)
+                .verify();
+
+        verify(holidayRepository, times(1)).getHolidayIndexAsync("NL", 2025);
+    }
+
+    @Test
+    public void testCountBusinessDays_acrossYears() {
+        when(holidayRepository.getHolidayIndexAsync("NL", 2024)).thenReturn(Mono.just(index("NL", 2024, List.of(
+                holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Eerste Kerstdag", "NL"),
+                holiday(LocalDate.of(2024, 12, 26), "St. Stephen's Day", "Tweede Kerstdag", "NL")))));
+        when(holidayRepository.getHolidayIndexAsync("NL", 2025)).thenReturn(Mono.just(index("NL", 2025, List.of(
+                holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL")))));
+
+        StepVerifier.create(holidayApiService.countBusinessDays("NL", "2024-12-23", "2025-01-03"))
+                .assertNext(response -> assertEquals(7, response.businessDays()))
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.countBusinessDays("NL", "2025-01-03", "2024-12-23"))
+                .expectError(InvalidRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void testGetBatch_answersEveryQueryInOrder() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndexAsync("US", year)).thenReturn(Mono.just(index("US", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", "US")))));
+        when(holidayRepository.getHolidayIndexAsync("NL", year)).thenReturn(Mono.just(index("NL", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "Nieuwjaarsdag", "NL")))));
+
+        StepVerifier.create(holidayApiService.getBatch(List.of(
+                        new BatchQuery("common", null, year, null, "US", "NL"),
+                        new BatchQuery("weekdayCount", null, 1900, List.of("US"), null, null),
+                        new BatchQuery("weekdayCount", null, year, List.of("NL"), null, null))))
+                .assertNext(results -> assertEquals(List.of(200, 400, 200),
+                        results.stream().map(BatchResult::status).toList()))
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.getBatch(List.of()))
+                .expectError(InvalidRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCount_emitsCountriesAsTheyAreLoaded() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndexAsync("US", year)).thenReturn(Mono.just(index("US", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year's Day", "New Year's Day", "US"))))
+                .delayElement(Duration.ofMillis(200)));
+        when(holidayRepository.getHolidayIndexAsync("NL", year)).thenReturn(Mono.just(index("NL", year, List.of())));
+
+        StepVerifier.create(holidayApiService.streamWeekdayHolidaysCount(year, List.of("US", "NL")))
+                .expectNext(new CountryHolidayCount("NL", 0))
+                .expectNext(new CountryHolidayCount("US", 1))
+                .verifyComplete();
+        StepVerifier.create(holidayApiService.streamWeekdayHolidaysCount(year, List.of("US", "XX")))
+                .expectError(InvalidCountryException.class)
+                .verify();
+    }
+
+    @Test
+    public void testStreamWeekdayHolidaysCountForYears_staysWithinTheConcurrencyCap() {
+        List<String> countries = List.of("US", "NL", "DE", "FR", "BE", "AT");
+        when(holidayRepository.getAvailableCountriesAsync()).thenReturn(Mono.just(Set.copyOf(countries)));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(holidayRepository.getHolidayIndexAsync(anyString(), anyInt())).thenAnswer(invocation -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.just(index(invocation.getArgument(0), invocation.getArgument(1), List.of()))
+                            .delayElement(Duration.ofMillis(20))
+                            .doOnNext(holidays -> inFlight.decrementAndGet());
+                }));
+
+        StepVerifier.create(holidayApiService.streamWeekdayHolidaysCount(2020, 2022, countries))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertEquals(4, maxInFlight.get());
+    }
+
+    @Test
+    public void testGetLastThreeCelebratedHolidays_noCelebratedHolidays() {
+        when(holidayRepository.getHolidayIndexAsync(eq("US"), anyInt()))
+                .thenAnswer(invocation -> Mono.just(index("US", invocation.getArgument(1), List.of(
+                        holiday(LocalDate.of(2076, 1, 1), "Future Holiday", "Toekomstige", "US")))));
+
+        StepVerifier.create(holidayApiService.getLastThreeCelebratedHolidays("US"))
+                .expectError(DataNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_success() {
+        int year = 2024;
+        when(holidayRepository.getHolidayIndexAsync("US", year)).thenReturn(Mono.just(index("US", year, List.of(
+                holiday(LocalDate.of(year, 1, 1), "New Year", "Nieuwjaar", "US"),      // Monday
+                holiday(LocalDate.of(year, 1, 7), "Random Sunday", "Zondag", "US"))))); // Sunday
+        when(holidayRepository.getHolidayIndexAsync("NL", year)).thenReturn(Mono.just(index("NL", year, List.of(
+                holiday(LocalDate.of(year, 5, 1), "Labour Day", "Dag van de Arbeid", "NL"),    // Wednesday
+                holiday(LocalDate.of(year, 12, 25), "Christmas", "Kerstmis", "NL")))));         // Wednesday
+
+        StepVerifier.create(holidayApiService.getWeekdayHolidaysCount(year, List.of("US", "NL")))
+                .assertNext(response -> {
+                    assertEquals(2, response.countries().size());
+                    assertEquals("NL", response.countries().get(0).countryCode());
+                    assertEquals(2, response.countries().get(0).weekdayHolidaysCount());
+                    assertEquals(1, response.countries().get(1).weekdayHolidaysCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_collectsAllInvalidCountries() {
+        when(holidayRepository.getHolidayIndexAsync("US", 2024)).thenReturn(Mono.just(index("US", 2024, List.of(
+                holiday(LocalDate.of(2024, 1, 1), "New Year", "Nieuwjaar", "US")))));
+
+        StepVerifier.create(holidayApiService.getWeekdayHolidaysCount(2024, List.of("XX", "US", "YY")))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof InvalidCountryException);
+                    assertEquals("Invalid country code(s): XX, YY. Please use valid ISO 3166-1 alpha-2 country codes.",
+                            e.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCount_invalidYear() {
+        StepVerifier.create(holidayApiService.getWeekdayHolidaysCount(1800, List.of("US")))
+                .expectError(InvalidYearException.class)
+                .verify();
+    }
+
+    @Test
+    public void testGetCommonHolidays_found() {
+        int year = 2024;
+        LocalDate commonDate = LocalDate.of(year, 1, 1);
+        when(holidayRepository.getHolidayIndexAsync("US", year)).thenReturn(Mono.just(index("US", year, List.of(
+                holiday(commonDate, "New Year", "New Year", "US")))));
+        when(holidayRepository.getHolidayIndexAsync("NL", year)).thenReturn(Mono.just(index("NL", year, List.of(
+                holiday(commonDate, "New Year", "Nieuwjaar", "NL")))));
+
+        StepVerifier.create(holidayApiService.getCommonHolidays(year, "US", "NL"))
+                .assertNext(response -> {
+                    assertEquals(1, response.getCommonHolidays().size());
+                    assertEquals("Nieuwjaar", response.getCommonHolidays().getFirst().localNameCountryTwo());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetWeekdayHolidaysCountForYears_emitsEveryYearInOrder() {
+        for (int year = 2022; year <= 2024; year++) {
+            when(holidayRepository.getHolidayIndexAsync("NL", year)).thenReturn(Mono.just(index("NL", year, List.of(
+                    holiday(LocalDate.of(year, 5, 5), "Liberation Day", "Bevrijdingsdag", "NL")))));
+            when(holidayRepository.getHolidayIndexAsync("US", year)).thenReturn(Mono.just(index("US", year, List.of())));
+        }
+
+        StepVerifier.create(holidayApiService.getWeekdayHolidaysCount(2022, 2024, List.of("US", "NL")))
+                .assertNext(response -> {
+                    assertEquals(2022, response.year());
+                    assertEquals("NL", response.countries().getFirst().countryCode());
+                    assertEquals(1, response.countries().getFirst().weekdayHolidaysCount()); // Thursday
+                })
+                .assertNext(response -> assertEquals(2023, response.year()))
+                .assertNext(response -> {
+                    assertEquals(2024, response.year());
+                    assertEquals(0, response.countries().getFirst().weekdayHolidaysCount()); // Sunday
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetCommonHolidaysForYears_invalidCountry() {
+        StepVerifier.create(holidayApiService.getCommonHolidays(2022, 2024, "US", "XX"))
+                .expectError(InvalidCountryException.class)
+                .verify();
+    }
+}